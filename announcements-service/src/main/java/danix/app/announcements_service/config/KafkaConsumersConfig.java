@@ -1,5 +1,6 @@
 package danix.app.announcements_service.config;
 
+import danix.app.announcements_service.dto.ExpiryShardDTO;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.LongDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -9,7 +10,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,6 +25,9 @@ public class KafkaConsumersConfig {
 	@Value("${spring.kafka.consumer.group-id}")
 	private String groupId;
 
+	@Value("${expiry_shard_max_poll_interval}")
+	private Duration expiryShardMaxPollInterval;
+
 	private ConsumerFactory<String, Long> consumerFactory() {
 		Map<String, Object> props = new HashMap<>();
 		props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -38,4 +44,17 @@ public class KafkaConsumersConfig {
 		return factory;
 	}
 
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<String, ExpiryShardDTO> expiryShardContainerFactory() {
+		Map<String, Object> props = new HashMap<>();
+		props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+		props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, (int) expiryShardMaxPollInterval.toMillis());
+		var factory = new ConcurrentKafkaListenerContainerFactory<String, ExpiryShardDTO>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+				new JsonDeserializer<>(ExpiryShardDTO.class, false)));
+		return factory;
+	}
+
 }
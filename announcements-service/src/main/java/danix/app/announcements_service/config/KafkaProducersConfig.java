@@ -1,7 +1,9 @@
 package danix.app.announcements_service.config;
 
-import danix.app.announcements_service.dto.EmailMessageDTO;
+import danix.app.announcements_service.dto.ExpiryShardResultDTO;
+import danix.app.announcements_service.dto.UserNotificationDTO;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.LongSerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -26,10 +28,24 @@ public class KafkaProducersConfig {
 	}
 
 	@Bean
-	public KafkaTemplate<String, EmailMessageDTO> emailMessageKafkaTemplate() {
+	public KafkaTemplate<String, UserNotificationDTO> userNotificationKafkaTemplate() {
 		return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(getProps()));
 	}
 
+	@Bean
+	public KafkaTemplate<String, ExpiryShardResultDTO> expiryShardResultKafkaTemplate() {
+		Map<String, Object> props = getProps();
+		props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+		return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+	}
+
+	@Bean
+	public KafkaTemplate<String, Long> longKafkaTemplate() {
+		Map<String, Object> props = getProps();
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
+		return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+	}
+
 	private Map<String, Object> getProps() {
 		Map<String, Object> props = new HashMap<>();
 		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -44,9 +44,10 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers(HttpMethod.OPTIONS)
                         .permitAll()
-                        .requestMatchers(HttpMethod.GET, "/announcements", "/announcements/{id}", "/announcements/find")
+                        .requestMatchers(HttpMethod.GET, "/announcements", "/announcements/{id}", "/announcements/find",
+                                "/announcements/feed", "/announcements/find/feed")
                         .permitAll()
-                        .requestMatchers("/announcements/expired")
+                        .requestMatchers("/announcements/expired", "/announcements/expired/shards")
                         .access(accessKeyAuthManager())
                         .anyRequest()
                         .hasAnyRole("USER", "ADMIN"))
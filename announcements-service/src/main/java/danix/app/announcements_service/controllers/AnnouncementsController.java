@@ -4,15 +4,17 @@ import danix.app.announcements_service.dto.*;
 import danix.app.announcements_service.util.SecurityUtil;
 import danix.app.announcements_service.models.User;
 import danix.app.announcements_service.services.AnnouncementsService;
+import danix.app.announcements_service.services.ExpiryService;
 import danix.app.announcements_service.util.*;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
@@ -34,8 +36,12 @@ public class AnnouncementsController {
 
     private final AnnouncementsService announcementsService;
 
+    private final ExpiryService expiryService;
+
     private final SecurityUtil securityUtil;
 
+    private final DownloadUrlSigner downloadUrlSigner;
+
     @GetMapping
     public ResponseEntity<List<ResponseAnnouncementDTO>> findAll(@RequestParam int page, @RequestParam int count,
                @RequestParam(defaultValue = "USD") CurrencyCode currency, @RequestParam(required = false) String city,
@@ -79,6 +85,26 @@ public class AnnouncementsController {
         }
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageDTO<ResponseAnnouncementDTO>> feed(@RequestParam(required = false) String cursor,
+               @RequestParam @Min(1) @Max(100) int count, @RequestParam(defaultValue = "USD") CurrencyCode currency,
+               @RequestParam(required = false) String city, @RequestParam(required = false) String country,
+               @RequestParam(required = false) List<String> filters,
+               @RequestParam(defaultValue = "ID", name = "sort_type") SortType sortType,
+               @RequestParam(defaultValue = "DESC", name = "sort_direction") Sort.Direction sortDirection) {
+        return findFeed(cursor, count, null, currency, city, country, filters, new SortData(sortType, sortDirection));
+    }
+
+    @GetMapping("/find/feed")
+    public ResponseEntity<CursorPageDTO<ResponseAnnouncementDTO>> findByTitleFeed(@RequestParam String title,
+               @RequestParam(required = false) String cursor, @RequestParam @Min(1) @Max(100) int count,
+               @RequestParam(defaultValue = "USD") CurrencyCode currency, @RequestParam(required = false) String city,
+               @RequestParam(required = false) String country, @RequestParam(required = false) List<String> filters,
+               @RequestParam(defaultValue = "ID", name = "sort_type") SortType sortType,
+               @RequestParam(defaultValue = "DESC", name = "sort_direction") Sort.Direction sortDirection) {
+        return findFeed(cursor, count, title, currency, city, country, filters, new SortData(sortType, sortDirection));
+    }
+
     @GetMapping("/user/{id}")
     public ResponseEntity<List<ResponseAnnouncementDTO>> findAllByUser(@PathVariable Long id,
                 @RequestParam(defaultValue = "USD") CurrencyCode currency, @RequestParam int page, @RequestParam int count) {
@@ -147,11 +173,11 @@ public class AnnouncementsController {
     }
 
     @GetMapping("/image/{id}")
-    public ResponseEntity<?> downloadImage(@PathVariable Long id) {
-        byte[] data = announcementsService.downloadImage(id);
-        return ResponseEntity.status(HttpStatus.OK)
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(data);
+    public ResponseEntity<?> downloadImage(@PathVariable Long id, @RequestParam(required = false) Integer size) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(announcementsService.getImageUrl(id, size))
+                .cacheControl(downloadUrlSigner.cacheControl())
+                .build();
     }
 
     @PostMapping("/{id}/image")
@@ -180,6 +206,12 @@ public class AnnouncementsController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    @Hidden
+    @GetMapping("/expired/shards")
+    public ResponseEntity<List<ExpiryShardDTO>> getExpiredShards() {
+        return new ResponseEntity<>(expiryService.planShards(), HttpStatus.OK);
+    }
+
     @Hidden
     @DeleteMapping("/expired")
     public ResponseEntity<HttpStatus> deleteExpiredAnnouncements() {
@@ -187,6 +219,22 @@ public class AnnouncementsController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    private ResponseEntity<CursorPageDTO<ResponseAnnouncementDTO>> findFeed(String cursor, int count, String title,
+               CurrencyCode currency, String city, String country, List<String> filters, SortData sortData) {
+        if (securityUtil.isAuthenticated()) {
+            User user = securityUtil.getCurrentUser();
+            return new ResponseEntity<>(announcementsService.findFeed(cursor, count, title, currency, filters, sortData,
+                    user.getCountry(), user.getCity()), HttpStatus.OK);
+        } else if (city == null) {
+            throw new AnnouncementException("City is required");
+        } else if (country == null) {
+            throw new AnnouncementException("Country is required");
+        } else {
+            return new ResponseEntity<>(announcementsService.findFeed(cursor, count, title, currency, filters, sortData,
+                    country, city), HttpStatus.OK);
+        }
+    }
+
     private void handleRequestErrors(BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             LocalDateTime timestamp = LocalDateTime.now();
@@ -0,0 +1,20 @@
+package danix.app.announcements_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> data;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+}
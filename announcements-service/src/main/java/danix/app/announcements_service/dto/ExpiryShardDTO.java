@@ -0,0 +1,20 @@
+package danix.app.announcements_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiryShardDTO {
+    private String jobId;
+    private Integer shardId;
+    private Integer attempt;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,18 @@
+package danix.app.announcements_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiryShardResultDTO {
+    private String jobId;
+    private Integer shardId;
+    private Integer attempt;
+    private int deleted;
+    private boolean success;
+}
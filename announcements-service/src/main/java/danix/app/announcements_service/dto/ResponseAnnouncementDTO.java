@@ -1,5 +1,6 @@
 package danix.app.announcements_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
@@ -35,4 +36,8 @@ public class ResponseAnnouncementDTO {
 	@JsonProperty("created_at")
 	private LocalDateTime createdAt;
 
+	@JsonProperty("is_liked")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Boolean liked;
+
 }
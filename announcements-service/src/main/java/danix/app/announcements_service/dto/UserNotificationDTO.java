@@ -9,7 +9,7 @@ import lombok.Setter;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-public class EmailMessageDTO {
-    private String email;
+public class UserNotificationDTO {
+    private Long userId;
     private String message;
 }
@@ -14,9 +14,6 @@ public interface FilesAPI {
 	void saveImage(@RequestPart("image") MultipartFile image, @RequestParam String fileName,
 				   @RequestParam("access_key") String accessKey);
 
-	@GetMapping(value = PATH)
-	byte[] downloadImage(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
-
 	@DeleteMapping(PATH)
 	void deleteImage(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
 
@@ -5,7 +5,7 @@ import danix.app.announcements_service.dto.DataDTO;
 import danix.app.announcements_service.dto.ResponseAnnouncementDTO;
 import danix.app.announcements_service.dto.ShowAnnouncementDTO;
 import danix.app.announcements_service.models.Announcement;
-import danix.app.announcements_service.repositories.IdProjection;
+import danix.app.announcements_service.repositories.AnnouncementProjection;
 import danix.app.announcements_service.services.CurrencyConverterService;
 import danix.app.announcements_service.services.impl.AnnouncementsServiceImpl;
 import danix.app.announcements_service.util.CurrencyCode;
@@ -16,7 +16,9 @@ import org.mapstruct.Named;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public abstract class AnnouncementMapper {
@@ -31,22 +33,46 @@ public abstract class AnnouncementMapper {
     @Mapping(target = "price", expression = PRICE_CONVERT_EXPRESSION)
     public abstract ResponseAnnouncementDTO toResponseDTO(Announcement announcement, CurrencyCode currency);
 
+    @Mapping(target = "imageId", expression = "java(imageId(announcement))")
+    @Mapping(target = "price", ignore = true)
+    protected abstract ResponseAnnouncementDTO toResponseDTOWithoutPrice(Announcement announcement);
+
+    @Mapping(target = "price", ignore = true)
+    protected abstract ResponseAnnouncementDTO toResponseDTOWithoutPrice(AnnouncementProjection projection);
+
     @Mapping(target = "imagesIds", source = "announcement", qualifiedByName = "images")
     @Mapping(target = "price", expression = PRICE_CONVERT_EXPRESSION)
+    @Mapping(target = "likesCount", ignore = true)
+    @Mapping(target = "watchesCount", ignore = true)
     public abstract ShowAnnouncementDTO toShowDTO(Announcement announcement, CurrencyCode currency);
 
+    public abstract ShowAnnouncementDTO copy(ShowAnnouncementDTO showDTO);
+
     public abstract Announcement fromCreateDTO(CreateAnnouncementDTO announcement);
 
     public List<ResponseAnnouncementDTO> toResponseDTOList(List<Announcement> announcements, CurrencyCode currency) {
-        return announcements.stream()
-                .map(announcement -> toResponseDTO(announcement, currency))
-                .toList();
+        return toResponseDTOList(announcements, Announcement::getPrice, this::toResponseDTOWithoutPrice, currency);
     }
 
-    public List<Long> toIdsListFromProjectionsList(List<IdProjection> projections) {
-        return projections.stream()
-                .map(IdProjection::getId)
-                .toList();
+    public List<ResponseAnnouncementDTO> toResponseDTOListFromProjections(List<AnnouncementProjection> projections,
+                                                                          CurrencyCode currency) {
+        return toResponseDTOList(projections, AnnouncementProjection::getPrice, this::toResponseDTOWithoutPrice,
+                currency);
+    }
+
+    private <T> List<ResponseAnnouncementDTO> toResponseDTOList(List<T> sources, Function<T, Double> price,
+                                                                Function<T, ResponseAnnouncementDTO> mapping,
+                                                                CurrencyCode currency) {
+        List<Double> prices = currencyConverterService.convertPrices(currency, sources.stream()
+                .map(price)
+                .toList());
+        List<ResponseAnnouncementDTO> responseDTOList = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            ResponseAnnouncementDTO responseDTO = mapping.apply(sources.get(i));
+            responseDTO.setPrice(prices.get(i));
+            responseDTOList.add(responseDTO);
+        }
+        return responseDTOList;
     }
 
     @Named("images")
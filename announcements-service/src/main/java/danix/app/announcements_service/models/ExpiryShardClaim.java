@@ -0,0 +1,29 @@
+package danix.app.announcements_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expiry_shard_claims")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExpiryShardClaim {
+
+	@Id
+	@Column(name = "shard_from")
+	private LocalDateTime shardFrom;
+
+	@Column(name = "job_id")
+	private Long jobId;
+
+	private Integer attempt;
+
+	private String owner;
+
+	@Column(name = "claimed_at")
+	private LocalDateTime claimedAt;
+
+}
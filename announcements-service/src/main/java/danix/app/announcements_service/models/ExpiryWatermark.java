@@ -0,0 +1,28 @@
+package danix.app.announcements_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expiry_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExpiryWatermark {
+
+	@Id
+	private String name;
+
+	@Column(name = "last_created_at")
+	private LocalDateTime lastCreatedAt;
+
+	@Column(name = "last_id")
+	private Long lastId;
+
+	public ExpiryWatermark(String name) {
+		this.name = name;
+	}
+
+}
@@ -3,6 +3,8 @@ package danix.app.announcements_service.models;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "announcements_images")
 @NoArgsConstructor
@@ -26,4 +28,12 @@ public class Image {
 	@JoinColumn(name = "announcement_id", referencedColumnName = "id")
 	private Announcement announcement;
 
+	@Column(name = "announcement_created_at")
+	private LocalDateTime announcementCreatedAt;
+
+	@PrePersist
+	private void fillAnnouncementCreatedAt() {
+		announcementCreatedAt = announcement.getCreatedAt();
+	}
+
 }
@@ -3,6 +3,8 @@ package danix.app.announcements_service.models;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "announcements_likes")
 @Getter
@@ -26,4 +28,12 @@ public class Like {
 		this.userId = userId;
 	}
 
+	@Column(name = "announcement_created_at")
+	private LocalDateTime announcementCreatedAt;
+
+	@PrePersist
+	private void fillAnnouncementCreatedAt() {
+		announcementCreatedAt = announcement.getCreatedAt();
+	}
+
 }
@@ -3,6 +3,8 @@ package danix.app.announcements_service.models;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "reports")
 @Builder
@@ -25,4 +27,12 @@ public class Report {
 	@Column(name = "sender_id")
 	private Long senderId;
 
+	@Column(name = "announcement_created_at")
+	private LocalDateTime announcementCreatedAt;
+
+	@PrePersist
+	private void fillAnnouncementCreatedAt() {
+		announcementCreatedAt = announcement.getCreatedAt();
+	}
+
 }
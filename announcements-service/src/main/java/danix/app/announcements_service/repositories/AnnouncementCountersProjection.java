@@ -0,0 +1,9 @@
+package danix.app.announcements_service.repositories;
+
+public interface AnnouncementCountersProjection {
+
+    int getLikesCount();
+
+    int getWatchesCount();
+
+}
@@ -0,0 +1,29 @@
+package danix.app.announcements_service.repositories;
+
+import java.time.LocalDateTime;
+
+public interface AnnouncementProjection {
+
+    Long getId();
+
+    String getTitle();
+
+    Double getPrice();
+
+    String getCountry();
+
+    String getCity();
+
+    String getType();
+
+    Long getOwnerId();
+
+    Long getImageId();
+
+    int getWatchesCount();
+
+    int getLikesCount();
+
+    LocalDateTime getCreatedAt();
+
+}
@@ -1,8 +1,8 @@
 package danix.app.announcements_service.repositories;
 
 import danix.app.announcements_service.models.Announcement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,34 +10,60 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AnnouncementsRepository extends JpaRepository<Announcement, Long> {
+public interface AnnouncementsRepository extends JpaRepository<Announcement, Long>, AnnouncementsRepositoryCustom {
 
-	@Query("SELECT a FROM Announcement a LEFT JOIN FETCH a.images WHERE a.id IN (:ids)")
-	List<Announcement> findAllByIdIn(List<Long> ids, Sort sort);
+	String PROJECTION_SELECT = "SELECT a.id AS id, a.title AS title, a.price AS price, a.country AS country, " +
+			"a.city AS city, a.type AS type, a.ownerId AS ownerId, a.watchesCount AS watchesCount, " +
+			"a.likesCount AS likesCount, a.createdAt AS createdAt, " +
+			"(SELECT MIN(i.id) FROM Image i WHERE i.announcement = a) AS imageId FROM Announcement a ";
 
-	List<IdProjection> findAllByOwnerId(Long ownerId, Pageable pageable);
+	@Query("SELECT a.id FROM Announcement a WHERE a.ownerId = :ownerId")
+	List<Long> findIdsByOwnerId(Long ownerId, Pageable pageable);
 
 	int countByOwnerId(Long ownerId);
 
-	List<IdProjection> findAllByTitleContainsIgnoreCaseAndCountryAndCityAndTypeIn(String title, String country,
-			String city, List<String> types, Pageable pageable);
+	@Query(PROJECTION_SELECT + "WHERE a.ownerId = :ownerId")
+	List<AnnouncementProjection> findAllProjectionsByOwnerId(Long ownerId, Pageable pageable);
 
-	List<IdProjection> findAllByCreatedAtBefore(LocalDateTime time, Pageable pageable);
+	@Query(PROJECTION_SELECT + "WHERE a.country = :country AND a.city = :city")
+	List<AnnouncementProjection> findAllProjectionsByCountryAndCity(String country, String city, Pageable pageable);
 
-	List<IdProjection> findAllByCountryAndCityAndTypeIn(String county, String city, Pageable pageable,
-			List<String> types);
+	@Query(PROJECTION_SELECT + "WHERE a.country = :country AND a.city = :city AND a.type IN (:types)")
+	List<AnnouncementProjection> findAllProjectionsByCountryAndCityAndTypeIn(String country, String city,
+			List<String> types, Pageable pageable);
 
-	List<IdProjection> findAllByCountryAndCity(String country, String city, Pageable pageable);
+	String EXPIRED_SELECT = "SELECT a.id AS id, a.ownerId AS ownerId, a.createdAt AS createdAt FROM Announcement a " +
+			"WHERE a.createdAt < :time ";
 
-	List<IdProjection> findAllByTitleContainsIgnoreCaseAndCountryAndCity(String title, String country, String city,
-			Pageable pageable);
+	@Query(EXPIRED_SELECT + "ORDER BY a.createdAt, a.id")
+	List<ExpiredAnnouncementProjection> findExpired(LocalDateTime time, Limit limit);
+
+	@Query(EXPIRED_SELECT + "AND (a.createdAt > :lastCreatedAt OR (a.createdAt = :lastCreatedAt AND a.id > :lastId)) " +
+			"ORDER BY a.createdAt, a.id")
+	List<ExpiredAnnouncementProjection> findExpiredAfter(LocalDateTime time, LocalDateTime lastCreatedAt, Long lastId,
+			Limit limit);
+
+	@Query("SELECT a.likesCount AS likesCount, a.watchesCount AS watchesCount FROM Announcement a " +
+			"WHERE a.id = :id AND a.createdAt = :createdAt")
+	Optional<AnnouncementCountersProjection> findCounters(Long id, LocalDateTime createdAt);
+
+	@Query("SELECT MIN(a.createdAt) FROM Announcement a")
+	LocalDateTime findMinCreatedAt();
 
 	@Modifying
 	@Query("DELETE FROM Announcement a WHERE a.id IN (:ids)")
 	void deleteAllByIdIn(List<Long> ids);
 
+	@Query(value = "WITH deleted AS (DELETE FROM announcements WHERE id IN (:ids) " +
+			"RETURNING id, owner_id, created_at) " +
+			"SELECT d.id AS id, d.owner_id AS \"ownerId\", i.file_name AS \"fileName\" FROM deleted d " +
+			"LEFT JOIN announcements_images i ON i.announcement_id = d.id AND i.announcement_created_at = d.created_at",
+			nativeQuery = true)
+	List<DeletedAnnouncementProjection> deleteAllByIdInReturningImages(List<Long> ids);
+
 	@Modifying
 	@Query("DELETE FROM Announcement a WHERE a.id = :id")
 	void deleteById(Long id);
@@ -0,0 +1,16 @@
+package danix.app.announcements_service.repositories;
+
+import danix.app.announcements_service.util.FeedCursor;
+import danix.app.announcements_service.util.SortData;
+
+import java.util.List;
+
+public interface AnnouncementsRepositoryCustom {
+
+	List<AnnouncementProjection> findFeed(String country, String city, String title, List<String> types,
+			SortData sortData, FeedCursor cursor, int count);
+
+	List<AnnouncementProjection> search(String title, String country, String city, List<String> types,
+			SortData sortData, int page, int count);
+
+}
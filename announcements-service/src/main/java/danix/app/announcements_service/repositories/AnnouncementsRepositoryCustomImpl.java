@@ -0,0 +1,123 @@
+package danix.app.announcements_service.repositories;
+
+import danix.app.announcements_service.util.FeedCursor;
+import danix.app.announcements_service.util.SortData;
+import danix.app.announcements_service.util.SortType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class AnnouncementsRepositoryCustomImpl implements AnnouncementsRepositoryCustom {
+
+	private static final String SELECT = "SELECT a.id AS id, a.title AS title, a.price AS price, a.country AS country, " +
+			"a.city AS city, a.type AS type, a.owner_id AS \"ownerId\", a.watches AS \"watchesCount\", " +
+			"a.likes AS \"likesCount\", a.created_at AS \"createdAt\", " +
+			"(SELECT MIN(i.id) FROM announcements_images i WHERE i.announcement_id = a.id) AS \"imageId\" " +
+			"FROM announcements a ";
+
+	private static final String TS_QUERY = "to_tsquery('simple', :query)";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+	@Override
+	public List<AnnouncementProjection> findFeed(String country, String city, String title, List<String> types,
+			SortData sortData, FeedCursor cursor, int count) {
+		return find(country, city, title, types, sortData, cursor, 0, count);
+	}
+
+	@Override
+	public List<AnnouncementProjection> search(String title, String country, String city, List<String> types,
+			SortData sortData, int page, int count) {
+		return find(country, city, title, types, sortData, null, page * count, count);
+	}
+
+	private List<AnnouncementProjection> find(String country, String city, String title, List<String> types,
+			SortData sortData, FeedCursor cursor, int offset, int count) {
+		String tsQuery = null;
+		if (title != null) {
+			tsQuery = toPrefixTsQuery(title);
+			if (tsQuery.isEmpty()) {
+				return List.of();
+			}
+		}
+		String column = "a." + sortData.type().getColumn();
+		if (sortData.type() == SortType.RELEVANCE && tsQuery != null) {
+			column = "ts_rank(a.search_vector, " + TS_QUERY + ")";
+		}
+		String direction = sortData.direction() == Sort.Direction.ASC ? "ASC" : "DESC";
+		String operator = sortData.direction() == Sort.Direction.ASC ? ">" : "<";
+		StringBuilder sql = new StringBuilder(SELECT).append("WHERE a.country = :country AND a.city = :city");
+		if (tsQuery != null) {
+			sql.append(" AND a.search_vector @@ ").append(TS_QUERY);
+		}
+		if (types != null) {
+			sql.append(" AND a.type IN (:types)");
+		}
+		boolean seekById = column.equals("a.id");
+		if (cursor != null) {
+			if (seekById) {
+				sql.append(" AND a.id ").append(operator).append(" :id");
+			}
+			else {
+				sql.append(" AND ").append(column).append(' ').append(operator).append("= :value")
+						.append(" AND (").append(column).append(' ').append(operator).append(" :value")
+						.append(" OR a.id ").append(operator).append(" :id)");
+			}
+		}
+		sql.append(" ORDER BY ").append(column).append(' ').append(direction);
+		if (!seekById) {
+			sql.append(", a.id ").append(direction);
+		}
+		Query query = entityManager.createNativeQuery(sql.toString(), Tuple.class)
+				.setParameter("country", country)
+				.setParameter("city", city)
+				.setFirstResult(offset)
+				.setMaxResults(count);
+		if (tsQuery != null) {
+			query.setParameter("query", tsQuery);
+		}
+		if (types != null) {
+			query.setParameter("types", types);
+		}
+		if (cursor != null) {
+			query.setParameter("id", cursor.id());
+			if (!seekById) {
+				query.setParameter("value", cursor.value());
+			}
+		}
+		List<Tuple> result = query.getResultList();
+		return result.stream()
+				.map(this::toProjection)
+				.toList();
+	}
+
+	private String toPrefixTsQuery(String title) {
+		return Arrays.stream(title.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+				.filter(word -> !word.isEmpty())
+				.map(word -> word + ":*")
+				.collect(Collectors.joining(" & "));
+	}
+
+	private AnnouncementProjection toProjection(Tuple tuple) {
+		Map<String, Object> values = new HashMap<>();
+		for (TupleElement<?> element : tuple.getElements()) {
+			values.put(element.getAlias(), tuple.get(element));
+		}
+		return projectionFactory.createProjection(AnnouncementProjection.class, values);
+	}
+
+}
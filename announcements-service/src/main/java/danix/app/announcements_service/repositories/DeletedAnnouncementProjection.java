@@ -0,0 +1,11 @@
+package danix.app.announcements_service.repositories;
+
+public interface DeletedAnnouncementProjection {
+
+    Long getId();
+
+    Long getOwnerId();
+
+    String getFileName();
+
+}
@@ -0,0 +1,13 @@
+package danix.app.announcements_service.repositories;
+
+import java.time.LocalDateTime;
+
+public interface ExpiredAnnouncementProjection {
+
+    Long getId();
+
+    Long getOwnerId();
+
+    LocalDateTime getCreatedAt();
+
+}
@@ -0,0 +1,32 @@
+package danix.app.announcements_service.repositories;
+
+import danix.app.announcements_service.models.ExpiryShardClaim;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ExpiryShardClaimsRepository extends JpaRepository<ExpiryShardClaim, LocalDateTime> {
+
+	@Modifying
+	@Query(value = "INSERT INTO expiry_shard_claims (shard_from, job_id, attempt, owner, claimed_at) " +
+			"VALUES (:shardFrom, :jobId, :attempt, :owner, now()) " +
+			"ON CONFLICT (shard_from) DO UPDATE SET job_id = EXCLUDED.job_id, attempt = EXCLUDED.attempt, " +
+			"owner = EXCLUDED.owner, claimed_at = EXCLUDED.claimed_at " +
+			"WHERE (expiry_shard_claims.job_id, expiry_shard_claims.attempt) < (EXCLUDED.job_id, EXCLUDED.attempt) " +
+			"OR (expiry_shard_claims.job_id = EXCLUDED.job_id AND expiry_shard_claims.attempt = EXCLUDED.attempt " +
+			"AND expiry_shard_claims.owner = EXCLUDED.owner)",
+			nativeQuery = true)
+	int claim(LocalDateTime shardFrom, long jobId, int attempt, String owner);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT c FROM ExpiryShardClaim c WHERE c.shardFrom = :shardFrom")
+	Optional<ExpiryShardClaim> findForUpdate(LocalDateTime shardFrom);
+
+}
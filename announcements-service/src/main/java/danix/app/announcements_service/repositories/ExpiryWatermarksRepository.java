@@ -0,0 +1,19 @@
+package danix.app.announcements_service.repositories;
+
+import danix.app.announcements_service.models.ExpiryWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExpiryWatermarksRepository extends JpaRepository<ExpiryWatermark, String> {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT w FROM ExpiryWatermark w WHERE w.name = :name")
+	Optional<ExpiryWatermark> findForUpdate(String name);
+
+}
@@ -1,7 +0,0 @@
-package danix.app.announcements_service.repositories;
-
-public interface IdProjection {
-
-    Long getId();
-
-}
@@ -2,9 +2,14 @@ package danix.app.announcements_service.repositories;
 
 import danix.app.announcements_service.models.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ImagesRepository extends JpaRepository<Image, Long> {
 
+	@Query("SELECT i.fileName FROM Image i WHERE i.announcement.id IN (:announcementsIds)")
+	List<String> findFileNamesByAnnouncementIdIn(List<Long> announcementsIds);
 }
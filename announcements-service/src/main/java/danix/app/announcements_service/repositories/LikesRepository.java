@@ -3,8 +3,10 @@ package danix.app.announcements_service.repositories;
 import danix.app.announcements_service.models.Announcement;
 import danix.app.announcements_service.models.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface LikesRepository extends JpaRepository<Like, Long> {
 
 	Optional<Like> findByAnnouncementAndUserId(Announcement announcement, Long userId);
 
+	@Query("SELECT l.announcement.id FROM Like l WHERE l.userId = :userId")
+	List<Long> findAnnouncementsIdsByUserId(Long userId);
+
 }
@@ -0,0 +1,16 @@
+package danix.app.announcements_service.services;
+
+import danix.app.announcements_service.dto.ShowAnnouncementDTO;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface AnnouncementsCacheService {
+
+    ShowAnnouncementDTO get(Long id, Supplier<ShowAnnouncementDTO> loader);
+
+    void evict(Long id);
+
+    void evict(List<Long> ids);
+
+}
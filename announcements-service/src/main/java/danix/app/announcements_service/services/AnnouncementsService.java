@@ -6,6 +6,7 @@ import danix.app.announcements_service.util.SortData;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 
 public interface AnnouncementsService {
@@ -16,11 +17,14 @@ public interface AnnouncementsService {
     List<ResponseAnnouncementDTO> findByTitle(int page, int count, String title, CurrencyCode currency, List<String> filters,
                                               SortData sortData, String country, String city);
 
+    CursorPageDTO<ResponseAnnouncementDTO> findFeed(String cursor, int count, String title, CurrencyCode currency,
+                                                    List<String> filters, SortData sortData, String country, String city);
+
     List<ResponseAnnouncementDTO> findAllByUser(Long id, CurrencyCode currency, int page, int count);
 
     DataDTO<Long> save(CreateAnnouncementDTO createDTO, CurrencyCode currency);
 
-    byte[] downloadImage(Long id);
+    URI getImageUrl(Long id, Integer size);
 
     DataDTO<Long> addImage(MultipartFile image, Long id);
 
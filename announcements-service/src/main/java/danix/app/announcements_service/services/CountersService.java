@@ -0,0 +1,11 @@
+package danix.app.announcements_service.services;
+
+import java.time.LocalDateTime;
+
+public interface CountersService {
+
+    void addLikes(Long announcementId, LocalDateTime createdAt, int delta);
+
+    void flush();
+
+}
@@ -2,10 +2,16 @@ package danix.app.announcements_service.services;
 
 import danix.app.announcements_service.util.CurrencyCode;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.function.Function;
 
 public interface CurrencyConverterService {
 
     double convertPrice(CurrencyCode currencyCode, Function<Double, Double> operation);
 
+    List<Double> convertPrices(CurrencyCode currencyCode, List<Double> prices);
+
+    Duration getRatesAge();
+
 }
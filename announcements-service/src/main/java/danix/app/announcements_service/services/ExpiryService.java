@@ -0,0 +1,17 @@
+package danix.app.announcements_service.services;
+
+import danix.app.announcements_service.dto.ExpiryShardDTO;
+
+import java.util.List;
+
+public interface ExpiryService {
+
+    int deleteExpired();
+
+    int deleteExpired(ExpiryShardDTO shard);
+
+    List<ExpiryShardDTO> planShards();
+
+    int sweep();
+
+}
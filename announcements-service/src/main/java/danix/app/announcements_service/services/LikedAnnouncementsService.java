@@ -0,0 +1,16 @@
+package danix.app.announcements_service.services;
+
+import java.util.List;
+import java.util.Set;
+
+public interface LikedAnnouncementsService {
+
+    boolean isLiked(Long userId, Long announcementId);
+
+    Set<Long> getLiked(Long userId, List<Long> announcementsIds);
+
+    void addLike(Long userId, Long announcementId);
+
+    void deleteLike(Long userId, Long announcementId);
+
+}
@@ -0,0 +1,15 @@
+package danix.app.announcements_service.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PartitionsService {
+
+    void createPartitions();
+
+    List<LocalDate> findExpiredPartitions(LocalDateTime time);
+
+    void dropPartition(LocalDate day);
+
+}
@@ -0,0 +1,11 @@
+package danix.app.announcements_service.services;
+
+import java.time.LocalDateTime;
+
+public interface WatchesService {
+
+    void record(Long announcementId, LocalDateTime createdAt, Long userId);
+
+    void flush();
+
+}
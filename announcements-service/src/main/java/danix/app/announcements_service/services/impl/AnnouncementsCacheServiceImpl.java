@@ -0,0 +1,84 @@
+package danix.app.announcements_service.services.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import danix.app.announcements_service.config.CacheConfig;
+import danix.app.announcements_service.dto.ShowAnnouncementDTO;
+import danix.app.announcements_service.services.AnnouncementsCacheService;
+import danix.app.announcements_service.util.TransactionUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class AnnouncementsCacheServiceImpl implements AnnouncementsCacheService {
+
+    private final CacheManager cacheManager;
+
+    private final KafkaTemplate<String, Long> longKafkaTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kafka-topics.invalidated-announcement}")
+    private String invalidatedAnnouncementTopic;
+
+    private CaffeineCache cache;
+
+    @PostConstruct
+    public void init() {
+        cache = (CaffeineCache) cacheManager.getCache(CacheConfig.ANNOUNCEMENTS_CACHE);
+        Gauge.builder("announcements.cache.hit.ratio", cache, caffeineCache -> {
+                    CacheStats stats = caffeineCache.getNativeCache().stats();
+                    return stats.requestCount() > 0 ? stats.hitRate() : Double.NaN;
+                })
+                .description("Hit ratio of the announcements view cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ShowAnnouncementDTO get(Long id, Supplier<ShowAnnouncementDTO> loader) {
+        try {
+            return cache.get(id, loader::get);
+        }
+        catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void evict(Long id) {
+        TransactionUtil.afterCommit(() -> {
+            cache.evict(id);
+            longKafkaTemplate.send(invalidatedAnnouncementTopic, id);
+        });
+    }
+
+    @Override
+    public void evict(List<Long> ids) {
+        TransactionUtil.afterCommit(() -> ids.forEach(id -> {
+            cache.evict(id);
+            longKafkaTemplate.send(invalidatedAnnouncementTopic, id);
+        }));
+    }
+
+    @KafkaListener(topics = "${kafka-topics.invalidated-announcement}", containerFactory = "containerFactory",
+            groupId = "#{'${spring.kafka.consumer.group-id}-' + T(java.util.UUID).randomUUID()}")
+    public void invalidatedAnnouncementListener(Long id) {
+        cache.evict(id);
+    }
+
+}
@@ -1,25 +1,33 @@
 package danix.app.announcements_service.services.impl;
 
 import danix.app.announcements_service.dto.CreateAnnouncementDTO;
+import danix.app.announcements_service.dto.CursorPageDTO;
 import danix.app.announcements_service.dto.DataDTO;
-import danix.app.announcements_service.dto.EmailMessageDTO;
 import danix.app.announcements_service.dto.ResponseAnnouncementDTO;
 import danix.app.announcements_service.dto.ResponseReportDTO;
 import danix.app.announcements_service.dto.ShowAnnouncementDTO;
 import danix.app.announcements_service.dto.ShowReportDTO;
 import danix.app.announcements_service.dto.UpdateAnnouncementDTO;
+import danix.app.announcements_service.dto.UserNotificationDTO;
 import danix.app.announcements_service.feign.FilesAPI;
-import danix.app.announcements_service.feign.UsersAPI;
 import danix.app.announcements_service.mapper.AnnouncementMapper;
 import danix.app.announcements_service.mapper.ReportMapper;
 import danix.app.announcements_service.models.*;
 import danix.app.announcements_service.repositories.*;
 import danix.app.announcements_service.util.SecurityUtil;
+import danix.app.announcements_service.services.AnnouncementsCacheService;
 import danix.app.announcements_service.services.AnnouncementsService;
+import danix.app.announcements_service.services.CountersService;
 import danix.app.announcements_service.services.CurrencyConverterService;
+import danix.app.announcements_service.services.ExpiryService;
+import danix.app.announcements_service.services.LikedAnnouncementsService;
+import danix.app.announcements_service.services.WatchesService;
 import danix.app.announcements_service.util.AnnouncementException;
 import danix.app.announcements_service.util.CurrencyCode;
+import danix.app.announcements_service.util.DownloadUrlSigner;
+import danix.app.announcements_service.util.FeedCursor;
 import danix.app.announcements_service.util.SortData;
+import danix.app.announcements_service.util.SortType;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,8 +39,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
@@ -46,21 +56,27 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 
 	private final ImagesRepository imagesRepository;
 
-	private final WatchesRepository watchesRepository;
-
 	private final LikesRepository likesRepository;
 
 	private final ReportsRepository reportsRepository;
 
 	private final CurrencyConverterService currencyConverterService;
 
-	private final FilesAPI filesAPI;
+	private final CountersService countersService;
+
+	private final WatchesService watchesService;
+
+	private final AnnouncementsCacheService announcementsCacheService;
+
+	private final LikedAnnouncementsService likedAnnouncementsService;
 
-	private final UsersAPI usersAPI;
+	private final ExpiryService expiryService;
+
+	private final FilesAPI filesAPI;
 
 	private final KafkaTemplate<String, List<String>> listKafkaTemplate;
 
-	private final KafkaTemplate<String, EmailMessageDTO> emailMessageKafkaTemplate;
+	private final KafkaTemplate<String, UserNotificationDTO> userNotificationKafkaTemplate;
 
 	private final AnnouncementMapper announcementMapper;
 
@@ -68,11 +84,15 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 
 	private final SecurityUtil securityUtil;
 
+	private final DownloadUrlSigner downloadUrlSigner;
+
+	private final TransactionTemplate transactionTemplate;
+
 	@Value("${kafka-topics.deleted-announcement}")
 	private String deletedAnnouncementTopic;
 
-	@Value("${kafka-topics.email-message}")
-	private String emailMessageTopic;
+	@Value("${kafka-topics.user-notification}")
+	private String userNotificationTopic;
 
 	private static final Sort ID_SORT = Sort.by(Sort.Direction.DESC, "id");
 
@@ -95,49 +115,53 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 	public List<ResponseAnnouncementDTO> findAll(int page, int count, CurrencyCode currency, List<String> filters,
 												 SortData sortData, String country, String city) {
 		PageRequest pageRequest = getPageRequest(page, count, sortData);
-		if (filters != null) {
-			List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-					.findAllByCountryAndCityAndTypeIn(country, city, pageRequest, filters));
-			return announcementMapper.toResponseDTOList(announcementsRepository
-					.findAllByIdIn(ids, pageRequest.getSort()), currency);
-		}
-		List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-				.findAllByCountryAndCity(country, city, pageRequest));
-		return announcementMapper.toResponseDTOList(announcementsRepository
-				.findAllByIdIn(ids, pageRequest.getSort()), currency);
+		List<AnnouncementProjection> announcements = filters != null ?
+				announcementsRepository.findAllProjectionsByCountryAndCityAndTypeIn(country, city, filters, pageRequest) :
+				announcementsRepository.findAllProjectionsByCountryAndCity(country, city, pageRequest);
+		return toResponseDTOList(announcements, currency);
 	}
 
 	@Override
 	public List<ResponseAnnouncementDTO> findByTitle(int page, int count, String title, CurrencyCode currency, List<String> filters,
 													SortData sortData, String country, String city) {
-		PageRequest pageRequest = getPageRequest(page, count, sortData);
-		if (filters != null) {
-			List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-					.findAllByTitleContainsIgnoreCaseAndCountryAndCityAndTypeIn(title, country, city, filters, pageRequest));
-			return announcementMapper.toResponseDTOList(announcementsRepository
-					.findAllByIdIn(ids, pageRequest.getSort()), currency);
+		return toResponseDTOList(announcementsRepository.search(title, country, city, filters, sortData, page, count),
+				currency);
+	}
+
+	private List<ResponseAnnouncementDTO> toResponseDTOList(List<AnnouncementProjection> announcements,
+															 CurrencyCode currency) {
+		List<ResponseAnnouncementDTO> responseDTOList = announcementMapper
+				.toResponseDTOListFromProjections(announcements, currency);
+		if (securityUtil.isAuthenticated() && !responseDTOList.isEmpty()) {
+			Set<Long> liked = likedAnnouncementsService.getLiked(securityUtil.getCurrentUser().getId(),
+					responseDTOList.stream().map(ResponseAnnouncementDTO::getId).toList());
+			responseDTOList.forEach(responseDTO -> responseDTO.setLiked(liked.contains(responseDTO.getId())));
 		}
-		List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-				.findAllByTitleContainsIgnoreCaseAndCountryAndCity(title, country, city, pageRequest));
-		return announcementMapper
-				.toResponseDTOList(announcementsRepository.findAllByIdIn(ids, pageRequest.getSort()), currency);
+		return responseDTOList;
 	}
 
 	private PageRequest getPageRequest(int page, int count, SortData sortData) {
-		String property = switch (sortData.type()) {
-			case LIKES -> "likesCount";
-			case WATCHES -> "watchesCount";
-			default -> sortData.type().toString().toLowerCase();
-		};
-		Sort.Direction direction = sortData.direction();
-		return PageRequest.of(page, count, Sort.by(direction, property));
+		return PageRequest.of(page, count, Sort.by(sortData.direction(), sortData.type().getProperty()));
+	}
+
+	@Override
+	public CursorPageDTO<ResponseAnnouncementDTO> findFeed(String cursor, int count, String title, CurrencyCode currency,
+			List<String> filters, SortData sortData, String country, String city) {
+		if (sortData.type() == SortType.RELEVANCE) {
+			sortData = new SortData(SortType.ID, sortData.direction());
+		}
+		FeedCursor feedCursor = cursor != null ? FeedCursor.decode(cursor, sortData) : null;
+		List<AnnouncementProjection> announcements = announcementsRepository.findFeed(country, city, title, filters,
+				sortData, feedCursor, count);
+		String nextCursor = announcements.size() == count && !announcements.isEmpty() ?
+				FeedCursor.of(sortData, announcements.getLast()).encode() : null;
+		return new CursorPageDTO<>(toResponseDTOList(announcements, currency), nextCursor);
 	}
 
 	@Override
 	public List<ResponseAnnouncementDTO> findAllByUser(Long id, CurrencyCode currency, int page, int count) {
-		List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-				.findAllByOwnerId(id, PageRequest.of(page, count, ID_SORT)));
-		return announcementMapper.toResponseDTOList(announcementsRepository.findAllByIdIn(ids, ID_SORT), currency);
+		return toResponseDTOList(announcementsRepository
+				.findAllProjectionsByOwnerId(id, PageRequest.of(page, count, ID_SORT)), currency);
 	}
 
 	@Override
@@ -152,10 +176,10 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 	}
 
 	@Override
-	public byte[] downloadImage(Long id) {
+	public URI getImageUrl(Long id, Integer size) {
 		Image image = imagesRepository.findById(id)
 				.orElseThrow(() -> new AnnouncementException("Image not found"));
-		return filesAPI.downloadImage(image.getFileName(), accessKey);
+		return downloadUrlSigner.sign(FilesAPI.PATH, image.getFileName(), size);
 	}
 
 	@Override
@@ -170,6 +194,7 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 		filesAPI.saveImage(image, uuid, accessKey);
 		Image savedImage = new Image(uuid, announcement);
 		imagesRepository.save(savedImage);
+		announcementsCacheService.evict(id);
 		return new DataDTO<>(savedImage.getId());
 	}
 
@@ -181,6 +206,7 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 		checkAnnouncementOwner(image.getAnnouncement());
 		filesAPI.deleteImage(image.getFileName(), accessKey);
 		imagesRepository.delete(image);
+		announcementsCacheService.evict(image.getAnnouncement().getId());
 	}
 
 	@Override
@@ -192,7 +218,8 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 			throw new AnnouncementException("Like already exists");
 		});
 		likesRepository.save(new Like(announcement, userId));
-		announcement.setLikesCount(announcement.getLikesCount() + 1);
+		countersService.addLikes(announcement.getId(), announcement.getCreatedAt(), 1);
+		likedAnnouncementsService.addLike(userId, announcement.getId());
 	}
 
 	@Override
@@ -204,22 +231,29 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 			.ifPresentOrElse(likesRepository::delete, () -> {
 				throw new AnnouncementException("Like not found");
 			});
-		announcement.setLikesCount(announcement.getLikesCount() - 1);
+		countersService.addLikes(announcement.getId(), announcement.getCreatedAt(), -1);
+		likedAnnouncementsService.deleteLike(userId, announcement.getId());
 	}
 
 	@Override
-	@Transactional
+	@Transactional(readOnly = true)
 	public ShowAnnouncementDTO show(Long id, CurrencyCode currency) {
-		Announcement announcement = findById(id);
-		ShowAnnouncementDTO showDTO = announcementMapper.toShowDTO(announcement, currency);
-		showDTO.setExpiredDate(announcement.getCreatedAt().plusDays(storageDays));
+		ShowAnnouncementDTO cachedDTO = announcementsCacheService.get(id, () -> {
+			Announcement announcement = findById(id);
+			ShowAnnouncementDTO showDTO = announcementMapper.toShowDTO(announcement, CurrencyCode.USD);
+			showDTO.setExpiredDate(announcement.getCreatedAt().plusDays(storageDays));
+			return showDTO;
+		});
+		AnnouncementCountersProjection counters = announcementsRepository.findCounters(id, cachedDTO.getCreatedAt())
+				.orElseThrow(() -> new AnnouncementException("Announcement not found"));
+		ShowAnnouncementDTO showDTO = announcementMapper.copy(cachedDTO);
+		showDTO.setLikesCount(counters.getLikesCount());
+		showDTO.setWatchesCount(counters.getWatchesCount());
+		showDTO.setPrice(currencyConverterService.convertPrice(currency, course -> cachedDTO.getPrice() * course));
 		if (securityUtil.isAuthenticated()) {
 			Long userId = securityUtil.getCurrentUser().getId();
-			watchesRepository.findByAnnouncementAndUserId(announcement, userId).orElseGet(() -> {
-				announcement.setWatchesCount(announcement.getWatchesCount() + 1);
-				return watchesRepository.save(new Watch(announcement, userId));
-			});
-			showDTO.setLiked(likesRepository.findByAnnouncementAndUserId(announcement, userId).isPresent());
+			watchesService.record(id, cachedDTO.getCreatedAt(), userId);
+			showDTO.setLiked(likedAnnouncementsService.isLiked(userId, id));
 		}
 		return showDTO;
 	}
@@ -268,6 +302,7 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 		checkAnnouncementOwner(announcement);
 		deleteImages(announcement);
 		announcementsRepository.deleteById(announcement.getId());
+		announcementsCacheService.evict(announcement.getId());
 	}
 
 	@Override
@@ -275,11 +310,12 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 	public void ban(Long id, String cause) {
 		Announcement announcement = findById(id);
 		deleteImages(announcement);
-		String email = getUserEmail(announcement.getOwnerId());
 		String message = String.format("Your announcement with title '%s' has been banned due to: %s",
 				announcement.getTitle(), cause);
-		emailMessageKafkaTemplate.send(emailMessageTopic, new EmailMessageDTO(email, message));
+		userNotificationKafkaTemplate.send(userNotificationTopic, new UserNotificationDTO(announcement.getOwnerId(),
+				message));
 		announcementsRepository.deleteById(announcement.getId());
+		announcementsCacheService.evict(announcement.getId());
 	}
 
 	@Override
@@ -314,47 +350,32 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 		if (updateDTO.getType() != null) {
 			announcement.setType(updateDTO.getType());
 		}
+		announcementsCacheService.evict(id);
 	}
 
 	@Override
-	@Transactional
 	@Async("virtualExecutor")
 	public void deleteExpired() {
-		int page = 0;
-		while (true) {
-			List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-					.findAllByCreatedAtBefore(LocalDateTime.now().minusDays(storageDays),
-							PageRequest.of(page, 50)));
-			if (ids.isEmpty()) {
-				break;
-			}
-			List<Announcement> announcements = announcementsRepository.findAllByIdIn(ids, ID_SORT);
-			deleteImages(announcements);
-			announcements.forEach(announcement -> {
-				String email = getUserEmail(announcement.getOwnerId());
-				String message = "Your announcement has been removed due to expiration";
-				emailMessageKafkaTemplate.send(emailMessageTopic, new EmailMessageDTO(email, message));
-			});
-			announcementsRepository.deleteAllByIdIn(ids);
-			page++;
-		}
+		expiryService.deleteExpired();
 		DELETE_EXPIRED_ANNOUNCEMENTS_LATCH.countDown();
 	}
 
-	@Transactional
 	@KafkaListener(topics = "${kafka-topics.deleted-user}", containerFactory = "containerFactory")
 	public void deletedUserListener(Long id) {
-		int page = 0;
 		while (true) {
-			List<Long> ids = announcementMapper.toIdsListFromProjectionsList(announcementsRepository
-					.findAllByOwnerId(id, PageRequest.of(page, 50, ID_SORT)));
+			List<Long> ids = announcementsRepository.findIdsByOwnerId(id, PageRequest.of(0, 50, ID_SORT));
 			if (ids.isEmpty()) {
 				break;
 			}
-			List<Announcement> announcements = announcementsRepository.findAllByIdIn(ids, ID_SORT);
-			deleteImages(announcements);
-			announcementsRepository.deleteAllByIdIn(ids);
-			page++;
+			List<String> images = transactionTemplate.execute(status -> {
+				List<String> fileNames = imagesRepository.findFileNamesByAnnouncementIdIn(ids);
+				announcementsRepository.deleteAllByIdIn(ids);
+				return fileNames;
+			});
+			if (images != null && !images.isEmpty()) {
+				listKafkaTemplate.send(deletedAnnouncementTopic, images);
+			}
+			announcementsCacheService.evict(ids);
 		}
 		DELETED_USER_LATCH.countDown();
 	}
@@ -373,19 +394,6 @@ public class AnnouncementsServiceImpl implements AnnouncementsService {
 		}
 	}
 
-	private void deleteImages(List<Announcement> announcements) {
-		List<String> images = announcements.stream()
-				.flatMap(announcement -> announcement.getImages().stream().map(Image::getFileName))
-				.toList();
-		if (!images.isEmpty()) {
-			listKafkaTemplate.send(deletedAnnouncementTopic, images);
-		}
-	}
-
-	private String getUserEmail(Long id) {
-		return (String) usersAPI.getUserEmail(id, accessKey).get("data");
-	}
-
 	private void checkAnnouncementOwner(Announcement announcement) {
 		if (!announcement.getOwnerId().equals(securityUtil.getCurrentUser().getId())) {
 			throw new AnnouncementException("You are not owner of this announcement");
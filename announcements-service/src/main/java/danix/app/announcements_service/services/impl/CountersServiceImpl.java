@@ -0,0 +1,101 @@
+package danix.app.announcements_service.services.impl;
+
+import danix.app.announcements_service.services.CountersService;
+import danix.app.announcements_service.util.TransactionUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CountersServiceImpl implements CountersService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<CounterKey, Integer> likes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private static final String UPDATE_LIKES = "UPDATE announcements SET likes = likes + ? " +
+            "WHERE id = ? AND created_at = ?";
+
+    private static final Comparator<CounterKey> KEY_ORDER = Comparator.comparing(CounterKey::announcementId)
+            .thenComparing(CounterKey::createdAt);
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("announcements.counters.pending", this, service -> service.likes.size())
+                .description("Announcements with counter deltas not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void addLikes(Long announcementId, LocalDateTime createdAt, int delta) {
+        CounterKey key = new CounterKey(announcementId, createdAt);
+        TransactionUtil.afterCommit(() -> likes.merge(key, delta, Integer::sum));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${counters_flush_interval}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flush(likes, UPDATE_LIKES);
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(ConcurrentHashMap<CounterKey, Integer> counters, String sql) {
+        Map<CounterKey, Integer> deltas = new TreeMap<>(KEY_ORDER);
+        for (CounterKey key : counters.keySet()) {
+            Integer delta = counters.remove(key);
+            if (delta != null && delta != 0) {
+                deltas.put(key, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> batch.add(new Object[]{delta, key.announcementId(), key.createdAt()}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        }
+        catch (Exception e) {
+            log.error("Error flush {} counter deltas, they will be retried: {}", deltas.size(), e.getMessage());
+            deltas.forEach((key, delta) -> counters.merge(key, delta, Integer::sum));
+        }
+    }
+
+    private record CounterKey(Long announcementId, LocalDateTime createdAt) {
+    }
+
+}
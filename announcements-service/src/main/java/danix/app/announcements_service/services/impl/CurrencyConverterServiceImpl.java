@@ -2,16 +2,30 @@ package danix.app.announcements_service.services.impl;
 
 import danix.app.announcements_service.feign.CurrencyConverterAPI;
 import danix.app.announcements_service.services.CurrencyConverterService;
+import danix.app.announcements_service.util.AnnouncementException;
 import danix.app.announcements_service.util.CurrencyCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,29 +34,126 @@ public class CurrencyConverterServiceImpl implements CurrencyConverterService {
 
     private final CurrencyConverterAPI converterAPI;
 
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<Rates> rates = new AtomicReference<>();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private static final String SOURCE = CurrencyCode.USD.toString();
+
+    private static final String CURRENCIES = Arrays.stream(CurrencyCode.values())
+            .filter(code -> code != CurrencyCode.USD)
+            .map(CurrencyCode::toString)
+            .collect(Collectors.joining(","));
+
     @Value("${currency_layer_api_key}")
     private String apiKey;
 
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("currency.rates.age", this, service -> {
+                    Duration age = service.getRatesAge();
+                    return age != null ? age.toSeconds() : Double.NaN;
+                })
+                .description("Seconds since the currency rates table was last refreshed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
     @Override
     public double convertPrice(CurrencyCode currencyCode, Function<Double, Double> operation) {
         if (CurrencyCode.USD != currencyCode) {
-            Map<String, Object> response = null;
+            double course = getCourse(currencyCode);
+            return round(operation.apply(course));
+        }
+        return operation.apply(1.0);
+    }
+
+    @Override
+    public List<Double> convertPrices(CurrencyCode currencyCode, List<Double> prices) {
+        if (CurrencyCode.USD != currencyCode) {
+            double course = getCourse(currencyCode);
+            return prices.stream()
+                    .map(price -> round(price * course))
+                    .toList();
+        }
+        return prices;
+    }
+
+    @Override
+    public Duration getRatesAge() {
+        Rates current = rates.get();
+        return current != null ? Duration.between(current.updatedAt(), Instant.now()) : null;
+    }
+
+    @Scheduled(fixedRateString = "${currency_rates_refresh_interval}")
+    public void refreshRates() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            loadRates();
+        }
+        catch (Exception e) {
+            log.error("Error refresh currency rates, serving rates with age {}: {}", getRatesAge(), e.getMessage());
+        }
+        finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private double getCourse(CurrencyCode currencyCode) {
+        Rates current = rates.get();
+        if (current == null) {
+            refreshLock.lock();
             try {
-                response = converterAPI.getCourse(apiKey, currencyCode.toString(), "USD", 1);
-                Map<String, Object> quotes = (Map<String, Object>) response.get("quotes");
-                double course = (double) quotes.get("USD" + currencyCode);
-                BigDecimal bigDecimal = BigDecimal.valueOf(operation.apply(course)).setScale(2, RoundingMode.HALF_UP);
-                return bigDecimal.doubleValue();
+                current = rates.get();
+                if (current == null) {
+                    loadRates();
+                    current = rates.get();
+                }
             }
-            catch (Exception e) {
-                assert response != null;
-                Map<String, Object> error = (Map<String, Object>) response.get("error");
-                String message = (String) error.get("info");
-                log.error("Error convert price: {}", message);
-                throw e;
+            finally {
+                refreshLock.unlock();
             }
         }
-        return operation.apply(1.0);
+        Double course = current.courses().get(currencyCode);
+        if (course == null) {
+            throw new AnnouncementException("Currency rate for " + currencyCode + " is unavailable");
+        }
+        return course;
+    }
+
+    private double round(double price) {
+        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private void loadRates() {
+        Map<String, Object> response = converterAPI.getCourse(apiKey, CURRENCIES, SOURCE, 1);
+        Map<String, Object> quotes = (Map<String, Object>) response.get("quotes");
+        if (quotes == null) {
+            Map<String, Object> error = (Map<String, Object>) response.get("error");
+            String message = error != null ? (String) error.get("info") : "Empty response";
+            log.error("Error load currency rates: {}", message);
+            throw new AnnouncementException("Currency rates are unavailable");
+        }
+        Rates previous = rates.get();
+        Map<CurrencyCode, Double> courses = new EnumMap<>(CurrencyCode.class);
+        if (previous != null) {
+            courses.putAll(previous.courses());
+        }
+        courses.put(CurrencyCode.USD, 1.0);
+        for (CurrencyCode code : CurrencyCode.values()) {
+            if (quotes.get(SOURCE + code) instanceof Number course) {
+                courses.put(code, course.doubleValue());
+            }
+        }
+        rates.set(new Rates(Collections.unmodifiableMap(courses), Instant.now()));
+        log.info("Currency rates refreshed: {}", courses);
+    }
+
+    private record Rates(Map<CurrencyCode, Double> courses, Instant updatedAt) {
     }
 
 }
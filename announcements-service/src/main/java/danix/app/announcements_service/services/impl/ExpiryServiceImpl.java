@@ -0,0 +1,338 @@
+package danix.app.announcements_service.services.impl;
+
+import danix.app.announcements_service.dto.ExpiryShardDTO;
+import danix.app.announcements_service.dto.ExpiryShardResultDTO;
+import danix.app.announcements_service.dto.UserNotificationDTO;
+import danix.app.announcements_service.repositories.AnnouncementsRepository;
+import danix.app.announcements_service.models.ExpiryShardClaim;
+import danix.app.announcements_service.models.ExpiryWatermark;
+import danix.app.announcements_service.repositories.DeletedAnnouncementProjection;
+import danix.app.announcements_service.repositories.ExpiredAnnouncementProjection;
+import danix.app.announcements_service.repositories.ExpiryShardClaimsRepository;
+import danix.app.announcements_service.repositories.ExpiryWatermarksRepository;
+import danix.app.announcements_service.services.AnnouncementsCacheService;
+import danix.app.announcements_service.services.ExpiryService;
+import danix.app.announcements_service.services.PartitionsService;
+import danix.app.announcements_service.util.ShardSupersededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiryServiceImpl implements ExpiryService {
+
+	private final AnnouncementsRepository announcementsRepository;
+
+	private final ExpiryWatermarksRepository expiryWatermarksRepository;
+
+	private final ExpiryShardClaimsRepository expiryShardClaimsRepository;
+
+	private final AnnouncementsCacheService announcementsCacheService;
+
+	private final PartitionsService partitionsService;
+
+	private final KafkaTemplate<String, List<String>> listKafkaTemplate;
+
+	private final KafkaTemplate<String, UserNotificationDTO> userNotificationKafkaTemplate;
+
+	private final KafkaTemplate<String, ExpiryShardResultDTO> expiryShardResultKafkaTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final MeterRegistry meterRegistry;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final AtomicLong progress = new AtomicLong();
+
+	private Counter deletedCounter;
+
+	private Timer chunkTimer;
+
+	private Counter partitionsCounter;
+
+	@Value("${kafka-topics.deleted-announcement}")
+	private String deletedAnnouncementTopic;
+
+	@Value("${kafka-topics.user-notification}")
+	private String userNotificationTopic;
+
+	@Value("${kafka-topics.expiry-shard-result}")
+	private String expiryShardResultTopic;
+
+	@Value("${max_storage_days}")
+	private int storageDays;
+
+	@Value("${expiry_chunk_size}")
+	private int chunkSize;
+
+	@Value("${continuous_expiry_enabled}")
+	private boolean continuousEnabled;
+
+	@Value("${continuous_expiry_max_rows}")
+	private int maxSweptRows;
+
+	private static final String WATERMARK_NAME = "announcements";
+
+	private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+	private static final String EXPIRATION_MESSAGE = "Your announcement has been removed due to expiration";
+
+	@PostConstruct
+	public void registerMetrics() {
+		deletedCounter = Counter.builder("announcements.expiry.deleted")
+				.description("Expired announcements deleted")
+				.register(meterRegistry);
+		chunkTimer = Timer.builder("announcements.expiry.chunk")
+				.description("Time to delete one chunk of expired announcements")
+				.register(meterRegistry);
+		partitionsCounter = Counter.builder("announcements.expiry.partitions.dropped")
+				.description("Expired daily announcements partitions dropped")
+				.register(meterRegistry);
+		Gauge.builder("announcements.expiry.progress", progress, AtomicLong::get)
+				.description("Expired announcements deleted by the current or last expiry pass")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public int deleteExpired() {
+		if (!running.compareAndSet(false, true)) {
+			log.warn("Expiry pass is already running, skipping");
+			return 0;
+		}
+		progress.set(0);
+		try {
+			LocalDateTime time = getExpirationTime();
+			int deleted = 0;
+			for (LocalDate day : partitionsService.findExpiredPartitions(time)) {
+				deleted += dropPartition(day, null);
+			}
+			deleted += deleteChunks(null, time, null);
+			log.info("Expiry pass deleted {} announcements", deleted);
+			return deleted;
+		}
+		finally {
+			running.set(false);
+		}
+	}
+
+	@Override
+	public int deleteExpired(ExpiryShardDTO shard) {
+		LocalDateTime time = getExpirationTime();
+		LocalDateTime from = shard.getFrom();
+		LocalDateTime end = shard.getTo().isAfter(time) ? time : shard.getTo();
+		if (!from.isBefore(end)) {
+			return 0;
+		}
+		Integer claimed = transactionTemplate.execute(status -> expiryShardClaimsRepository.claim(from,
+				Long.parseLong(shard.getJobId()), shard.getAttempt(), INSTANCE_ID));
+		if (claimed == null || claimed == 0) {
+			throw new ShardSupersededException("Expiry shard is claimed by a newer attempt");
+		}
+		LocalDate day = from.toLocalDate();
+		if (from.equals(day.atStartOfDay()) && end.equals(day.plusDays(1).atStartOfDay()) &&
+				partitionsService.findExpiredPartitions(end).contains(day)) {
+			return dropPartition(day, shard);
+		}
+		return deleteChunks(from, end, shard);
+	}
+
+	@Override
+	public List<ExpiryShardDTO> planShards() {
+		LocalDateTime time = getExpirationTime();
+		LocalDateTime minCreatedAt = announcementsRepository.findMinCreatedAt();
+		List<ExpiryShardDTO> shards = new ArrayList<>();
+		if (minCreatedAt == null) {
+			return shards;
+		}
+		LocalDateTime from = minCreatedAt.toLocalDate().atStartOfDay();
+		while (from.isBefore(time)) {
+			LocalDateTime to = from.plusDays(1);
+			shards.add(new ExpiryShardDTO(null, shards.size(), null, from, to.isAfter(time) ? time : to));
+			from = to;
+		}
+		return shards;
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${continuous_expiry_interval}")
+	public int sweep() {
+		if (!continuousEnabled || !running.compareAndSet(false, true)) {
+			return 0;
+		}
+		try {
+			LocalDateTime time = getExpirationTime();
+			int read = 0;
+			int swept = 0;
+			while (read < maxSweptRows) {
+				int limit = Math.min(chunkSize, maxSweptRows - read);
+				SweptChunk chunk = transactionTemplate.execute(status -> sweepChunk(time, limit));
+				if (chunk == null) {
+					break;
+				}
+				read += chunk.read();
+				swept += publish(chunk.deleted());
+			}
+			LocalDateTime watermark = expiryWatermarksRepository.findById(WATERMARK_NAME)
+					.map(ExpiryWatermark::getLastCreatedAt)
+					.orElse(null);
+			if (watermark != null) {
+				for (LocalDate day : partitionsService.findExpiredPartitions(watermark)) {
+					swept += dropPartition(day, null);
+				}
+			}
+			if (swept > 0) {
+				log.info("Expiry sweep deleted {} announcements, watermark {}", swept, watermark);
+			}
+			return swept;
+		}
+		finally {
+			running.set(false);
+		}
+	}
+
+	@KafkaListener(topics = "${kafka-topics.expiry-shard}", containerFactory = "expiryShardContainerFactory")
+	public void expiryShardListener(ExpiryShardDTO shard) {
+		ExpiryShardResultDTO result = new ExpiryShardResultDTO(shard.getJobId(), shard.getShardId(),
+				shard.getAttempt(), 0, false);
+		try {
+			result.setDeleted(deleteExpired(shard));
+			result.setSuccess(true);
+		}
+		catch (ShardSupersededException e) {
+			log.warn("Expiry shard {} of job {} attempt {} is superseded, stopping", shard.getShardId(),
+					shard.getJobId(), shard.getAttempt());
+			return;
+		}
+		catch (Exception e) {
+			log.error("Error process expiry shard {} of job {}: {}", shard.getShardId(), shard.getJobId(),
+					e.getMessage(), e);
+		}
+		expiryShardResultKafkaTemplate.send(expiryShardResultTopic, shard.getJobId(), result);
+	}
+
+	private SweptChunk sweepChunk(LocalDateTime time, int limit) {
+		ExpiryWatermark watermark = expiryWatermarksRepository.findForUpdate(WATERMARK_NAME)
+				.orElseGet(() -> expiryWatermarksRepository.save(new ExpiryWatermark(WATERMARK_NAME)));
+		List<ExpiredAnnouncementProjection> chunk = watermark.getLastCreatedAt() == null ?
+				announcementsRepository.findExpired(time, Limit.of(limit)) :
+				announcementsRepository.findExpiredAfter(time, watermark.getLastCreatedAt(), watermark.getLastId(),
+						Limit.of(limit));
+		if (chunk.isEmpty()) {
+			return null;
+		}
+		List<DeletedAnnouncementProjection> deleted = announcementsRepository
+				.deleteAllByIdInReturningImages(getIds(chunk));
+		ExpiredAnnouncementProjection last = chunk.getLast();
+		watermark.setLastCreatedAt(last.getCreatedAt());
+		watermark.setLastId(last.getId());
+		return new SweptChunk(chunk.size(), deleted);
+	}
+
+	private int deleteChunks(LocalDateTime from, LocalDateTime time, ExpiryShardDTO shard) {
+		List<ExpiredAnnouncementProjection> chunk = from == null ?
+				announcementsRepository.findExpired(time, Limit.of(chunkSize)) :
+				announcementsRepository.findExpiredAfter(time, from, 0L, Limit.of(chunkSize));
+		int deleted = 0;
+		while (!chunk.isEmpty()) {
+			List<Long> ids = getIds(chunk);
+			Integer count = chunkTimer.record(() -> deleteChunk(ids, shard));
+			deleted += count == null ? 0 : count;
+			ExpiredAnnouncementProjection last = chunk.getLast();
+			chunk = announcementsRepository.findExpiredAfter(time, last.getCreatedAt(), last.getId(),
+					Limit.of(chunkSize));
+		}
+		return deleted;
+	}
+
+	private int dropPartition(LocalDate day, ExpiryShardDTO shard) {
+		int deleted = deleteChunks(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), shard);
+		if (shard != null) {
+			transactionTemplate.execute(status -> checkClaim(shard));
+		}
+		partitionsService.dropPartition(day);
+		partitionsCounter.increment();
+		log.info("Dropped expired announcements partition for {}", day);
+		return deleted;
+	}
+
+	private ExpiryShardClaim checkClaim(ExpiryShardDTO shard) {
+		ExpiryShardClaim claim = expiryShardClaimsRepository.findForUpdate(shard.getFrom())
+				.orElseThrow(() -> new ShardSupersededException("Expiry shard claim not found"));
+		if (!claim.getJobId().equals(Long.parseLong(shard.getJobId())) ||
+				!claim.getAttempt().equals(shard.getAttempt()) || !claim.getOwner().equals(INSTANCE_ID)) {
+			throw new ShardSupersededException("Expiry shard is claimed by a newer attempt");
+		}
+		return claim;
+	}
+
+	private int deleteChunk(List<Long> ids, ExpiryShardDTO shard) {
+		return publish(transactionTemplate.execute(status -> {
+			if (shard != null) {
+				checkClaim(shard);
+			}
+			return announcementsRepository.deleteAllByIdInReturningImages(ids);
+		}));
+	}
+
+	private int publish(List<DeletedAnnouncementProjection> deleted) {
+		if (deleted == null || deleted.isEmpty()) {
+			return 0;
+		}
+		Map<Long, Long> owners = new LinkedHashMap<>();
+		List<String> images = new ArrayList<>();
+		for (DeletedAnnouncementProjection row : deleted) {
+			owners.put(row.getId(), row.getOwnerId());
+			if (row.getFileName() != null) {
+				images.add(row.getFileName());
+			}
+		}
+		if (!images.isEmpty()) {
+			listKafkaTemplate.send(deletedAnnouncementTopic, images);
+		}
+		owners.values().forEach(ownerId -> userNotificationKafkaTemplate.send(userNotificationTopic,
+				new UserNotificationDTO(ownerId, EXPIRATION_MESSAGE)));
+		List<Long> ids = List.copyOf(owners.keySet());
+		announcementsCacheService.evict(ids);
+		deletedCounter.increment(ids.size());
+		progress.addAndGet(ids.size());
+		return ids.size();
+	}
+
+	private LocalDateTime getExpirationTime() {
+		return LocalDateTime.now().minusDays(storageDays);
+	}
+
+	private List<Long> getIds(List<ExpiredAnnouncementProjection> chunk) {
+		return chunk.stream()
+				.map(ExpiredAnnouncementProjection::getId)
+				.toList();
+	}
+
+	private record SweptChunk(int read, List<DeletedAnnouncementProjection> deleted) {
+	}
+
+}
@@ -0,0 +1,132 @@
+package danix.app.announcements_service.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danix.app.announcements_service.repositories.LikesRepository;
+import danix.app.announcements_service.services.LikedAnnouncementsService;
+import danix.app.announcements_service.util.TransactionUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class LikedAnnouncementsServiceImpl implements LikedAnnouncementsService {
+
+    private final LikesRepository likesRepository;
+
+    private final KafkaTemplate<String, Long> longKafkaTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kafka-topics.changed-likes}")
+    private String changedLikesTopic;
+
+    @Value("${liked_announcements_cache_max_size}")
+    private long maxSize;
+
+    @Value("${liked_announcements_cache_ttl}")
+    private Duration ttl;
+
+    private Cache<Long, long[]> likedIds;
+
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    @PostConstruct
+    public void init() {
+        likedIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, likedIds, "liked_announcements");
+    }
+
+    @Override
+    public boolean isLiked(Long userId, Long announcementId) {
+        return Arrays.binarySearch(getLikedIds(userId), announcementId) >= 0;
+    }
+
+    @Override
+    public Set<Long> getLiked(Long userId, List<Long> announcementsIds) {
+        long[] ids = getLikedIds(userId);
+        Set<Long> liked = new HashSet<>();
+        for (Long announcementId : announcementsIds) {
+            if (Arrays.binarySearch(ids, announcementId) >= 0) {
+                liked.add(announcementId);
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public void addLike(Long userId, Long announcementId) {
+        TransactionUtil.afterCommit(() -> {
+            likedIds.asMap().computeIfPresent(userId, (id, ids) -> insert(ids, announcementId));
+            longKafkaTemplate.send(changedLikesTopic, INSTANCE_ID, userId);
+        });
+    }
+
+    @Override
+    public void deleteLike(Long userId, Long announcementId) {
+        TransactionUtil.afterCommit(() -> {
+            likedIds.asMap().computeIfPresent(userId, (id, ids) -> remove(ids, announcementId));
+            longKafkaTemplate.send(changedLikesTopic, INSTANCE_ID, userId);
+        });
+    }
+
+    @KafkaListener(topics = "${kafka-topics.changed-likes}", containerFactory = "containerFactory",
+            groupId = "#{'${spring.kafka.consumer.group-id}-' + T(java.util.UUID).randomUUID()}")
+    public void changedLikesListener(@Header(KafkaHeaders.RECEIVED_KEY) String instanceId, @Payload Long userId) {
+        if (!INSTANCE_ID.equals(instanceId)) {
+            likedIds.invalidate(userId);
+        }
+    }
+
+    private long[] getLikedIds(Long userId) {
+        return likedIds.get(userId, id -> likesRepository.findAnnouncementsIdsByUserId(id).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray());
+    }
+
+    private long[] insert(long[] ids, long announcementId) {
+        int index = Arrays.binarySearch(ids, announcementId);
+        if (index >= 0) {
+            return ids;
+        }
+        int position = -index - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = announcementId;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+        return result;
+    }
+
+    private long[] remove(long[] ids, long announcementId) {
+        int index = Arrays.binarySearch(ids, announcementId);
+        if (index < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return result;
+    }
+
+}
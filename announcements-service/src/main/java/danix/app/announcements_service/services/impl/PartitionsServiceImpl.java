@@ -0,0 +1,111 @@
+package danix.app.announcements_service.services.impl;
+
+import danix.app.announcements_service.services.PartitionsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionsServiceImpl implements PartitionsService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger coveredDays = new AtomicInteger();
+
+    private Counter failuresCounter;
+
+    @Value("${partitions_days_ahead}")
+    private int daysAhead;
+
+    private static final String PARTITION_PREFIX = "announcements_p";
+
+    private static final List<String> PARTITIONED_TABLES = List.of("announcements_images", "announcements_likes",
+            "announcements_watches", "reports", "announcements");
+
+    private static final String SELECT_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'announcements' AND c.relname LIKE 'announcements\\_p%' " +
+            "ORDER BY c.relname";
+
+    private static final String SELECT_DETACH_PENDING = "SELECT i.inhdetachpending FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE c.relname = ?";
+
+    @PostConstruct
+    public void registerMetrics() {
+        failuresCounter = Counter.builder("announcements.partitions.failures")
+                .description("Failed attempts to create daily announcements partitions")
+                .register(meterRegistry);
+        Gauge.builder("announcements.partitions.days_ahead", coveredDays, AtomicInteger::get)
+                .description("Consecutive days starting today covered by announcements partitions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${partitions_maintenance_interval}")
+    public void createPartitions() {
+        LocalDate today = LocalDate.now();
+        int covered = 0;
+        boolean consecutive = true;
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            try {
+                jdbcTemplate.update("CALL create_announcements_partition(?)", day);
+                if (consecutive) {
+                    covered++;
+                }
+            }
+            catch (Exception e) {
+                consecutive = false;
+                failuresCounter.increment();
+                log.error("Error create announcements partition for {}: {}", day, e.getMessage());
+            }
+        }
+        coveredDays.set(covered);
+        if (covered <= daysAhead) {
+            log.error("Announcements partitions cover only {} of {} days ahead", covered, daysAhead + 1);
+        }
+    }
+
+    @Override
+    public List<LocalDate> findExpiredPartitions(LocalDateTime time) {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class).stream()
+                .map(name -> LocalDate.parse(name.substring(PARTITION_PREFIX.length()),
+                        DateTimeFormatter.BASIC_ISO_DATE))
+                .filter(day -> !day.plusDays(1).atStartOfDay().isAfter(time))
+                .toList();
+    }
+
+    @Override
+    public void dropPartition(LocalDate day) {
+        String suffix = "_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+        for (String table : PARTITIONED_TABLES) {
+            String partition = table + suffix;
+            List<Boolean> pending = jdbcTemplate.queryForList(SELECT_DETACH_PENDING, Boolean.class, partition);
+            if (!pending.isEmpty()) {
+                String mode = pending.get(0) ? "FINALIZE" : "CONCURRENTLY";
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition + " " + mode);
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package danix.app.announcements_service.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danix.app.announcements_service.services.WatchesService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchesServiceImpl implements WatchesService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<WatchKey> pending = ConcurrentHashMap.newKeySet();
+
+    private final Cache<WatchKey, Boolean> recorded = Caffeine.newBuilder()
+            .maximumSize(MAX_RECORDED)
+            .build();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Counter duplicatesCounter;
+
+    private static final int MAX_RECORDED = 100_000;
+
+    private static final String INSERT_WATCH = "INSERT INTO announcements_watches " +
+            "(announcement_id, user_id, announcement_created_at) " +
+            "SELECT id, ?, created_at FROM announcements WHERE id = ? AND created_at = ? " +
+            "ON CONFLICT (announcement_id, user_id, announcement_created_at) DO NOTHING";
+
+    private static final String UPDATE_WATCHES = "UPDATE announcements SET watches = watches + ? " +
+            "WHERE id = ? AND created_at = ?";
+
+    private static final Comparator<CounterKey> KEY_ORDER = Comparator.comparing(CounterKey::announcementId)
+            .thenComparing(CounterKey::createdAt);
+
+    @PostConstruct
+    public void registerMetrics() {
+        duplicatesCounter = Counter.builder("announcements.watches.duplicates")
+                .description("Watch events dropped in memory because the pair was already recorded")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void record(Long announcementId, LocalDateTime createdAt, Long userId) {
+        WatchKey key = new WatchKey(announcementId, createdAt, userId);
+        if (recorded.getIfPresent(key) != null || !pending.add(key)) {
+            duplicatesCounter.increment();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${watches_flush_interval}")
+    public void flush() {
+        flushLock.lock();
+        List<WatchKey> batch = new ArrayList<>(pending.size());
+        try {
+            for (WatchKey key : pending) {
+                pending.remove(key);
+                batch.add(key);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            batch.forEach(key -> recorded.put(key, Boolean.TRUE));
+        }
+        catch (Exception e) {
+            log.error("Error flush {} watches, they will be retried: {}", batch.size(), e.getMessage());
+            pending.addAll(batch);
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void insert(List<WatchKey> batch) {
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_WATCH, batch.stream()
+                .map(key -> new Object[]{key.userId(), key.announcementId(), key.createdAt()})
+                .toList());
+        Map<CounterKey, Integer> deltas = new TreeMap<>(KEY_ORDER);
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i] > 0) {
+                WatchKey key = batch.get(i);
+                deltas.merge(new CounterKey(key.announcementId(), key.createdAt()), 1, Integer::sum);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_WATCHES, deltas.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue(), entry.getKey().announcementId(),
+                            entry.getKey().createdAt()})
+                    .toList());
+        }
+    }
+
+    private record WatchKey(Long announcementId, LocalDateTime createdAt, Long userId) {
+    }
+
+    private record CounterKey(Long announcementId, LocalDateTime createdAt) {
+    }
+
+}
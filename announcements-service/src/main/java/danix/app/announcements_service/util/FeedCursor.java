@@ -0,0 +1,48 @@
+package danix.app.announcements_service.util;
+
+import danix.app.announcements_service.repositories.AnnouncementProjection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record FeedCursor(SortData sortData, Number value, long id) {
+
+	private static final String SEPARATOR = "|";
+
+	public static FeedCursor of(SortData sortData, AnnouncementProjection last) {
+		Number value = switch (sortData.type()) {
+			case ID, RELEVANCE -> last.getId();
+			case PRICE -> last.getPrice();
+			case LIKES -> last.getLikesCount();
+			case WATCHES -> last.getWatchesCount();
+		};
+		return new FeedCursor(sortData, value, last.getId());
+	}
+
+	public static FeedCursor decode(String token, SortData sortData) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = decoded.split("\\|");
+			if (parts.length != 4 || !parts[0].equals(sortData.type().toString()) ||
+					!parts[1].equals(sortData.direction().toString())) {
+				throw new AnnouncementException("Invalid cursor");
+			}
+			Number value = switch (sortData.type()) {
+				case ID, RELEVANCE -> Long.parseLong(parts[2]);
+				case PRICE -> Double.parseDouble(parts[2]);
+				case LIKES, WATCHES -> Integer.parseInt(parts[2]);
+			};
+			return new FeedCursor(sortData, value, Long.parseLong(parts[3]));
+		}
+		catch (IllegalArgumentException e) {
+			throw new AnnouncementException("Invalid cursor");
+		}
+	}
+
+	public String encode() {
+		String raw = String.join(SEPARATOR, sortData.type().toString(), sortData.direction().toString(),
+				value.toString(), Long.toString(id));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
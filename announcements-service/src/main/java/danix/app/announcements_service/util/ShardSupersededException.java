@@ -0,0 +1,9 @@
+package danix.app.announcements_service.util;
+
+public class ShardSupersededException extends RuntimeException {
+
+	public ShardSupersededException(String message) {
+		super(message);
+	}
+
+}
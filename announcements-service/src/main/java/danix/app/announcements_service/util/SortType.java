@@ -1,13 +1,27 @@
 package danix.app.announcements_service.util;
 
+import lombok.Getter;
+
+@Getter
 public enum SortType {
 
-	LIKES,
+	LIKES("likesCount", "likes"),
+
+	PRICE("price", "price"),
+
+	ID("id", "id"),
+
+	WATCHES("watchesCount", "watches"),
+
+	RELEVANCE("id", "id");
 
-	PRICE,
+	private final String property;
 
-	ID,
+	private final String column;
 
-	WATCHES,
+	SortType(String property, String column) {
+		this.property = property;
+		this.column = column;
+	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+CREATE TEMPORARY TABLE announcements_default_rows ON COMMIT DROP AS
+SELECT id, owner_id, title, description, price, created_at, type, phone_number, country, city, likes, watches
+FROM announcements_default;
+
+CREATE TEMPORARY TABLE announcements_images_default_rows ON COMMIT DROP AS
+SELECT * FROM announcements_images_default;
+
+CREATE TEMPORARY TABLE announcements_likes_default_rows ON COMMIT DROP AS
+SELECT * FROM announcements_likes_default;
+
+CREATE TEMPORARY TABLE announcements_watches_default_rows ON COMMIT DROP AS
+SELECT * FROM announcements_watches_default;
+
+CREATE TEMPORARY TABLE reports_default_rows ON COMMIT DROP AS
+SELECT * FROM reports_default;
+
+ALTER TABLE announcements_images DETACH PARTITION announcements_images_default;
+
+ALTER TABLE announcements_likes DETACH PARTITION announcements_likes_default;
+
+ALTER TABLE announcements_watches DETACH PARTITION announcements_watches_default;
+
+ALTER TABLE reports DETACH PARTITION reports_default;
+
+ALTER TABLE announcements DETACH PARTITION announcements_default;
+
+DROP TABLE announcements_images_default, announcements_likes_default, announcements_watches_default,
+    reports_default, announcements_default;
+
+DO
+$$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT DISTINCT created_at::DATE FROM announcements_default_rows
+        LOOP
+            CALL create_announcements_partition(day);
+        END LOOP;
+END;
+$$;
+
+INSERT INTO announcements (id, owner_id, title, description, price, created_at, type, phone_number, country, city,
+                           likes, watches)
+SELECT id, owner_id, title, description, price, created_at, type, phone_number, country, city, likes, watches
+FROM announcements_default_rows;
+
+INSERT INTO announcements_images (id, file_name, announcement_id, announcement_created_at)
+SELECT id, file_name, announcement_id, announcement_created_at
+FROM announcements_images_default_rows;
+
+INSERT INTO announcements_likes (id, announcement_id, user_id, announcement_created_at)
+SELECT id, announcement_id, user_id, announcement_created_at
+FROM announcements_likes_default_rows;
+
+INSERT INTO announcements_watches (id, announcement_id, user_id, announcement_created_at)
+SELECT id, announcement_id, user_id, announcement_created_at
+FROM announcements_watches_default_rows;
+
+INSERT INTO reports (id, announcement_id, cause, sender_id, announcement_created_at)
+SELECT id, announcement_id, cause, sender_id, announcement_created_at
+FROM reports_default_rows;
+
+DROP PROCEDURE IF EXISTS drop_announcements_partition(DATE);
@@ -0,0 +1 @@
+ALTER TABLE expiry_shard_claims ADD COLUMN owner VARCHAR NOT NULL DEFAULT '';
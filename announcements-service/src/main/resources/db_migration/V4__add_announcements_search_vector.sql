@@ -0,0 +1,4 @@
+ALTER TABLE announcements
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', title)) STORED;
+
+CREATE INDEX IF NOT EXISTS announcements_search_vector_idx ON announcements USING GIN (search_vector);
@@ -0,0 +1,9 @@
+DELETE FROM announcements_watches w
+    USING announcements_watches d
+WHERE w.announcement_id = d.announcement_id
+  AND w.user_id = d.user_id
+  AND w.id > d.id;
+
+DROP INDEX IF EXISTS announcements_watches_announcement_id_user_id_idx;
+
+CREATE UNIQUE INDEX IF NOT EXISTS announcements_watches_announcement_id_user_id_key ON announcements_watches (announcement_id, user_id);
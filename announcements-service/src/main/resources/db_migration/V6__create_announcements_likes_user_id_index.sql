@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS announcements_likes_user_id_announcement_id_idx ON announcements_likes (user_id, announcement_id);
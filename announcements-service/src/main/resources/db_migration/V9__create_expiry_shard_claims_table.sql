@@ -0,0 +1,9 @@
+CREATE TABLE expiry_shard_claims
+(
+    shard_from       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    job_id           BIGINT                      NOT NULL,
+    attempt          INTEGER                     NOT NULL,
+    events_published BOOLEAN                     NOT NULL DEFAULT FALSE,
+    claimed_at       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT expiry_shard_claims_pkey PRIMARY KEY (shard_from)
+);
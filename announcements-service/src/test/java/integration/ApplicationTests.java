@@ -6,24 +6,29 @@ import danix.app.announcements_service.AnnouncementsServiceApplication;
 import danix.app.announcements_service.config.SecurityConfig;
 import danix.app.announcements_service.dto.CauseDTO;
 import danix.app.announcements_service.dto.CreateAnnouncementDTO;
+import danix.app.announcements_service.dto.CursorPageDTO;
 import danix.app.announcements_service.dto.DataDTO;
-import danix.app.announcements_service.dto.EmailMessageDTO;
 import danix.app.announcements_service.dto.ResponseAnnouncementDTO;
 import danix.app.announcements_service.dto.ResponseReportDTO;
 import danix.app.announcements_service.dto.ShowAnnouncementDTO;
 import danix.app.announcements_service.dto.ShowReportDTO;
 import danix.app.announcements_service.dto.UpdateAnnouncementDTO;
+import danix.app.announcements_service.dto.UserNotificationDTO;
 import danix.app.announcements_service.feign.FilesAPI;
-import danix.app.announcements_service.feign.UsersAPI;
 import danix.app.announcements_service.models.Announcement;
 import danix.app.announcements_service.models.Image;
 import danix.app.announcements_service.models.Like;
 import danix.app.announcements_service.models.Report;
 import danix.app.announcements_service.models.User;
 import danix.app.announcements_service.repositories.AnnouncementsRepository;
+import danix.app.announcements_service.repositories.ExpiryShardClaimsRepository;
 import danix.app.announcements_service.repositories.ImagesRepository;
 import danix.app.announcements_service.repositories.LikesRepository;
 import danix.app.announcements_service.repositories.ReportsRepository;
+import danix.app.announcements_service.repositories.WatchesRepository;
+import danix.app.announcements_service.services.CountersService;
+import danix.app.announcements_service.services.ExpiryService;
+import danix.app.announcements_service.services.WatchesService;
 import danix.app.announcements_service.services.impl.AnnouncementsServiceImpl;
 import danix.app.announcements_service.util.SecurityUtil;
 import danix.app.announcements_service.util.SortType;
@@ -37,6 +42,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,7 +50,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -68,12 +76,15 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.testcontainers.containers.PostgreSQLContainer;
 import util.TestUtil;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -98,7 +109,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -107,7 +118,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @Import({TestSecurityConfig.class})
 @EmbeddedKafka(brokerProperties = {"listeners=PLAINTEXT://localhost:9092", "port=9092"},
-        topics = {"${kafka-topics.email-message}", "${kafka-topics.deleted-user}", "${kafka-topics.deleted-announcement}"})
+        topics = {"${kafka-topics.user-notification}", "${kafka-topics.deleted-user}", "${kafka-topics.deleted-announcement}",
+                "${kafka-topics.invalidated-announcement}", "${kafka-topics.changed-likes}"})
 public class ApplicationTests {
 
     @MockitoBean
@@ -119,9 +131,6 @@ public class ApplicationTests {
     @MockitoBean
     private FilesAPI filesAPI;
 
-    @MockitoBean
-    private UsersAPI usersAPI;
-
     @Autowired
     private MockMvc mvc;
 
@@ -140,6 +149,27 @@ public class ApplicationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CountersService countersService;
+
+    @Autowired
+    private WatchesService watchesService;
+
+    @Autowired
+    private WatchesRepository watchesRepository;
+
+    @Autowired
+    private ExpiryService expiryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpiryShardClaimsRepository expiryShardClaimsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${spring.kafka.consumer.bootstrap-servers}")
     private String consumerBootstrapServers;
 
@@ -152,8 +182,8 @@ public class ApplicationTests {
     @Value("${access_key}")
     private String accessKey;
 
-    @Value("${kafka-topics.email-message}")
-    private String emailMessageTopic;
+    @Value("${kafka-topics.user-notification}")
+    private String userNotificationTopic;
 
     @Value("${kafka-topics.deleted-announcement}")
     private String deletedAnnouncementTopic;
@@ -161,7 +191,7 @@ public class ApplicationTests {
     @Value("${kafka-topics.deleted-user}")
     private String deletedUserTopic;
 
-    private final BlockingQueue<EmailMessageDTO> emailMessagesQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<UserNotificationDTO> userNotificationsQueue = new LinkedBlockingQueue<>();
 
     private final BlockingQueue<List<String>> deletedImagesQueue = new LinkedBlockingQueue<>();
 
@@ -185,6 +215,11 @@ public class ApplicationTests {
         POSTGRE_SQL.stop();
     }
 
+    @BeforeEach
+    public void createPartitions() {
+        jdbcTemplate.update("CALL create_announcements_partition(?)", LocalDate.now());
+    }
+
     @Transactional
     @AfterEach
     public void cleanUp() {
@@ -375,6 +410,84 @@ public class ApplicationTests {
         });
     }
 
+    @Test
+    @WithMockUser
+    public void findAnnouncementsFeed() {
+        when(securityUtil.isAuthenticated()).thenReturn(true);
+        mockCurrentUser();
+        List<Announcement> announcements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Announcement announcement = TestUtil.getTestAnnouncement();
+            announcement.setId(null);
+            announcements.add(announcement);
+        }
+        testRepository.saveAllAnnouncements(announcements);
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("count", "4");
+        List<Long> ids = new ArrayList<>();
+        CursorPageDTO<ResponseAnnouncementDTO> response = doFindFeedRequest(DEFAULT_PATH + "/feed", params);
+        response.getData().forEach(responseAnnouncementDTO -> ids.add(responseAnnouncementDTO.getId()));
+        while (response.getNextCursor() != null) {
+            params.set("cursor", response.getNextCursor());
+            response = doFindFeedRequest(DEFAULT_PATH + "/feed", params);
+            response.getData().forEach(responseAnnouncementDTO -> ids.add(responseAnnouncementDTO.getId()));
+        }
+        List<Long> expected = announcements.stream()
+                .map(Announcement::getId)
+                .sorted((id1, id2) -> Long.compare(id2, id1))
+                .toList();
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    @WithMockUser
+    public void findAnnouncementsFeedWithSort() throws Exception {
+        when(securityUtil.isAuthenticated()).thenReturn(true);
+        mockCurrentUser();
+        List<Announcement> announcements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Announcement announcement = TestUtil.getTestAnnouncement();
+            announcement.setId(null);
+            announcement.setLikesCount(i % 3);
+            announcements.add(announcement);
+        }
+        testRepository.saveAllAnnouncements(announcements);
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("count", "3");
+        params.add("sort_type", SortType.LIKES.toString());
+        List<ResponseAnnouncementDTO> result = new ArrayList<>();
+        CursorPageDTO<ResponseAnnouncementDTO> response = doFindFeedRequest(DEFAULT_PATH + "/feed", params);
+        result.addAll(response.getData());
+        while (response.getNextCursor() != null) {
+            params.set("cursor", response.getNextCursor());
+            response = doFindFeedRequest(DEFAULT_PATH + "/feed", params);
+            result.addAll(response.getData());
+        }
+        assertEquals(10, result.size());
+        assertEquals(10, result.stream().map(ResponseAnnouncementDTO::getId).distinct().count());
+        checkDescLikesSort(result);
+        params.set("sort_type", SortType.PRICE.toString());
+        mvc.perform(get(DEFAULT_PATH + "/feed")
+                        .queryParams(params))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    public void findAnnouncementsFeedWithInvalidCount() throws Exception {
+        when(securityUtil.isAuthenticated()).thenReturn(true);
+        mockCurrentUser();
+        for (String count : List.of("0", "101")) {
+            mvc.perform(get(DEFAULT_PATH + "/feed")
+                            .param("count", count))
+                    .andExpect(status().isBadRequest());
+            mvc.perform(get(DEFAULT_PATH + "/find/feed")
+                            .param("title", "title")
+                            .param("count", count))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Test
     @WithMockUser
     public void findAllAnnouncementsByTitle() {
@@ -571,6 +684,34 @@ public class ApplicationTests {
         });
     }
 
+    @Test
+    @WithMockUser
+    public void findAllAnnouncementsByTitleWithPrefixAndRelevanceSort() {
+        when(securityUtil.isAuthenticated()).thenReturn(true);
+        mockCurrentUser();
+        List<String> titles = List.of("Iphone case", "Iphone 13 pro, iphone", "Samsung phone", "Iphone 12");
+        List<Announcement> announcements = new ArrayList<>();
+        for (String title : titles) {
+            Announcement announcement = TestUtil.getTestAnnouncement();
+            announcement.setId(null);
+            announcement.setTitle(title);
+            announcements.add(announcement);
+        }
+        testRepository.saveAllAnnouncements(announcements);
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("page", "0");
+        params.add("count", "10");
+        params.add("title", "iph");
+        params.add("sort_type", SortType.RELEVANCE.toString());
+        List<ResponseAnnouncementDTO> response = doFindAllRequest(DEFAULT_PATH + "/find", params);
+        assertEquals(3, response.size());
+        assertEquals("Iphone 13 pro, iphone", response.getFirst().getTitle());
+        params.set("title", "IPHONE pr");
+        response = doFindAllRequest(DEFAULT_PATH + "/find", params);
+        assertEquals(1, response.size());
+        assertEquals("Iphone 13 pro, iphone", response.getFirst().getTitle());
+    }
+
     @Test
     @WithMockUser
     public void findAllUsersAnnouncements() {
@@ -612,6 +753,26 @@ public class ApplicationTests {
         assertEquals(id, showDTO.getId());
     }
 
+    @Test
+    @WithMockUser
+    public void showAnnouncementRecordsWatchOnce() throws Exception {
+        when(securityUtil.isAuthenticated()).thenReturn(true);
+        mockCurrentUser();
+        Announcement announcement = TestUtil.getTestAnnouncement();
+        announcement.setId(null);
+        Long id = testRepository.saveAnnouncement(announcement);
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(get(DEFAULT_PATH + "/" + id))
+                    .andExpect(status().isOk());
+        }
+        watchesService.flush();
+        mvc.perform(get(DEFAULT_PATH + "/" + id))
+                .andExpect(status().isOk());
+        watchesService.flush();
+        assertTrue(watchesRepository.findByAnnouncementAndUserId(announcement, TestUtil.getTestUser().getId()).isPresent());
+        assertEquals(1, announcementsRepository.findById(id).get().getWatchesCount());
+    }
+
     @Test
     @WithMockUser
     public void addLike() throws Exception {
@@ -621,6 +782,8 @@ public class ApplicationTests {
         Long id = testRepository.saveAnnouncement(announcement);
         mvc.perform(post(DEFAULT_PATH + "/" + id + "/like"))
                 .andExpect(status().isCreated());
+        assertEquals(0, announcementsRepository.findById(id).get().getLikesCount());
+        countersService.flush();
         announcement = announcementsRepository.findById(id).get();
         assertEquals(1, announcement.getLikesCount());
     }
@@ -750,6 +913,27 @@ public class ApplicationTests {
         assertEquals(updateAnnouncementDTO.getType(), updatedAnnouncement.getType());
     }
 
+    @Test
+    @WithMockUser
+    public void showAnnouncementIsCachedUntilUpdated() throws Exception {
+        mockCurrentUser();
+        Announcement announcement = TestUtil.getTestAnnouncement();
+        announcement.setId(null);
+        Long id = testRepository.saveAnnouncement(announcement);
+        assertEquals(announcement.getTitle(), doShowRequest(id).getTitle());
+        announcement.setTitle("changed_without_eviction");
+        testRepository.saveAnnouncement(announcement);
+        assertEquals(TestUtil.getTestAnnouncement().getTitle(), doShowRequest(id).getTitle());
+        UpdateAnnouncementDTO updateAnnouncementDTO = UpdateAnnouncementDTO.builder()
+                .title("new_title")
+                .build();
+        mvc.perform(patch(DEFAULT_PATH + "/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateAnnouncementDTO)))
+                .andExpect(status().isOk());
+        assertEquals(updateAnnouncementDTO.getTitle(), doShowRequest(id).getTitle());
+    }
+
     @Test
     @WithMockUser
     public void addImage() throws Exception {
@@ -783,14 +967,15 @@ public class ApplicationTests {
         announcement.setId(null);
         testRepository.saveAnnouncement(announcement);
         Long imageId = testRepository.createImage(announcement);
-        byte[] imageBody = new byte[0];
-        when(filesAPI.downloadImage(any(), any())).thenReturn(imageBody);
-        MvcResult result = mvc.perform(get(DEFAULT_PATH + "/image/" + imageId))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+        MvcResult result = mvc.perform(get(DEFAULT_PATH + "/image/" + imageId).param("size", "160"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, private"))
                 .andReturn();
-        byte[] response = result.getResponse().getContentAsByteArray();
-        assertNotEquals(imageBody, response);
+        String location = result.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertNotNull(location);
+        assertTrue(location.startsWith("/files" + FilesAPI.PATH + "?fileName="));
+        assertTrue(location.contains("size=160"));
+        assertTrue(location.contains("signature="));
     }
 
     @Test
@@ -810,11 +995,9 @@ public class ApplicationTests {
     @Test
     @WithMockUser(roles = {"USER", "ADMIN"})
     public void banAnnouncement() throws Exception {
-        configureEmailMessagesConsumer();
+        configureUserNotificationsConsumer();
         configureDeletedAnnouncementConsumer();
         mockCurrentUser();
-        User user = TestUtil.getTestUser();
-        when(usersAPI.getUserEmail(eq(user.getId()), any())).thenReturn(Map.of("data", user.getEmail()));
         Announcement announcement = TestUtil.getTestAnnouncement();
         announcement.setId(null);
         Long id = testRepository.saveAnnouncement(announcement);
@@ -829,10 +1012,10 @@ public class ApplicationTests {
                         .content(jsonBody))
                 .andExpect(status().isOk());
         assertTrue(announcementsRepository.findById(id).isEmpty());
-        EmailMessageDTO emailMessage = emailMessagesQueue.poll(5, TimeUnit.SECONDS);
-        assertNotNull(emailMessage);
-        assertNotNull(emailMessage.getEmail());
-        assertNotNull(emailMessage.getMessage());
+        UserNotificationDTO userNotification = userNotificationsQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(userNotification);
+        assertEquals(announcement.getOwnerId(), userNotification.getUserId());
+        assertNotNull(userNotification.getMessage());
         List<String> deletedImages = deletedImagesQueue.poll(5, TimeUnit.SECONDS);
         assertNotNull(deletedImages);
         assertEquals(images.size(), deletedImages.size());
@@ -919,6 +1102,7 @@ public class ApplicationTests {
             announcements.add(announcement);
         }
         LocalDateTime expiredTime = LocalDateTime.now().minusDays(announcementsStorageDays + 1);
+        jdbcTemplate.update("CALL create_announcements_partition(?)", expiredTime.toLocalDate());
         for (int i = 0; i < 5; i++) {
             Announcement announcement = TestUtil.getTestAnnouncement();
             announcement.setId(null);
@@ -927,9 +1111,7 @@ public class ApplicationTests {
         }
         testRepository.saveAllAnnouncements(announcements);
         assertEquals(10, announcementsRepository.findAll().size());
-        configureEmailMessagesConsumer();
-        User user = TestUtil.getTestUser();
-        when(usersAPI.getUserEmail(eq(user.getId()), any())).thenReturn(Map.of("data", user.getEmail()));
+        configureUserNotificationsConsumer();
         mvc.perform(delete(DEFAULT_PATH + "/expired")
                         .queryParam("access_key", accessKey))
                 .andExpect(status().isOk());
@@ -937,14 +1119,59 @@ public class ApplicationTests {
         List<Announcement> remaining = announcementsRepository.findAll();
         assertEquals(5, remaining.size());
         remaining.forEach(announcement -> assertEquals(time.toLocalDate(), announcement.getCreatedAt().toLocalDate()));
-        int emailMessagesCount = 0;
-        EmailMessageDTO emailMessage;
-        while ((emailMessage = emailMessagesQueue.poll(5, TimeUnit.SECONDS)) != null) {
-            assertNotNull(emailMessage.getEmail());
-            assertNotNull(emailMessage.getMessage());
-            emailMessagesCount++;
+        int userNotificationsCount = 0;
+        UserNotificationDTO userNotification;
+        while ((userNotification = userNotificationsQueue.poll(5, TimeUnit.SECONDS)) != null) {
+            assertEquals(TestUtil.getTestUser().getId(), userNotification.getUserId());
+            assertNotNull(userNotification.getMessage());
+            userNotificationsCount++;
         }
-        assertEquals(5, emailMessagesCount);
+        assertEquals(5, userNotificationsCount);
+    }
+
+    @Test
+    public void deleteExpiredAnnouncementsDropsExpiredPartitions() throws Exception {
+        LocalDate day = LocalDate.now().minusDays(announcementsStorageDays + 10);
+        String partition = "announcements_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+        jdbcTemplate.update("CALL create_announcements_partition(?)", day);
+        List<Announcement> announcements = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Announcement announcement = TestUtil.getTestAnnouncement();
+            announcement.setId(null);
+            announcement.setCreatedAt(day.atTime(12, i));
+            announcements.add(announcement);
+        }
+        testRepository.saveAllAnnouncements(announcements);
+        testRepository.createImages(announcements);
+        configureUserNotificationsConsumer();
+        configureDeletedAnnouncementConsumer();
+        assertEquals(3, expiryService.deleteExpired());
+        assertTrue(announcementsRepository.findAll().isEmpty());
+        assertTrue(imagesRepository.findAll().isEmpty());
+        assertFalse(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition));
+        int deletedImagesCount = 0;
+        List<String> deletedImages;
+        while ((deletedImages = deletedImagesQueue.poll(5, TimeUnit.SECONDS)) != null) {
+            deletedImagesCount += deletedImages.size();
+        }
+        assertEquals(3, deletedImagesCount);
+        int userNotificationsCount = 0;
+        while (userNotificationsQueue.poll(5, TimeUnit.SECONDS) != null) {
+            userNotificationsCount++;
+        }
+        assertEquals(3, userNotificationsCount);
+    }
+
+    @Test
+    public void expiryShardClaimFencesSameAttemptFromAnotherOwner() {
+        LocalDateTime from = LocalDate.now().minusDays(announcementsStorageDays + 20).atStartOfDay();
+        assertEquals(1, claimShard(from, 1, 1, "first"));
+        assertEquals(1, claimShard(from, 1, 1, "first"));
+        assertEquals(0, claimShard(from, 1, 1, "second"));
+        assertEquals(1, claimShard(from, 1, 2, "second"));
+        assertEquals(0, claimShard(from, 1, 1, "first"));
+        assertEquals("second", expiryShardClaimsRepository.findById(from).orElseThrow().getOwner());
+        expiryShardClaimsRepository.deleteById(from);
     }
 
     @Test
@@ -965,6 +1192,25 @@ public class ApplicationTests {
         });
     }
 
+    @SneakyThrows
+    private CursorPageDTO<ResponseAnnouncementDTO> doFindFeedRequest(String path, MultiValueMap<String, String> params) {
+        MvcResult result = mvc.perform(get(path)
+                        .queryParams(params))
+                .andExpect(status().isOk())
+                .andReturn();
+        String jsonResponse = result.getResponse().getContentAsString();
+        return objectMapper.readValue(jsonResponse, new TypeReference<>() {
+        });
+    }
+
+    @SneakyThrows
+    private ShowAnnouncementDTO doShowRequest(Long id) {
+        MvcResult result = mvc.perform(get(DEFAULT_PATH + "/" + id))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ShowAnnouncementDTO.class);
+    }
+
     private void checkDescLikesSort(List<ResponseAnnouncementDTO> announcements) {
         boolean isSorted = true;
         for (int i = 0; i < announcements.size() - 1; i++) {
@@ -987,18 +1233,24 @@ public class ApplicationTests {
         assertTrue(isSorted);
     }
 
-    private void configureEmailMessagesConsumer() {
-        ConsumerFactory<String, EmailMessageDTO> consumerFactory = new DefaultKafkaConsumerFactory<>(
+    private int claimShard(LocalDateTime from, long jobId, int attempt, String owner) {
+        Integer claimed = transactionTemplate.execute(status ->
+                expiryShardClaimsRepository.claim(from, jobId, attempt, owner));
+        return claimed == null ? 0 : claimed;
+    }
+
+    private void configureUserNotificationsConsumer() {
+        ConsumerFactory<String, UserNotificationDTO> consumerFactory = new DefaultKafkaConsumerFactory<>(
                 getConsumerProps(),
                 new StringDeserializer(),
-                new JsonDeserializer<>(EmailMessageDTO.class)
+                new JsonDeserializer<>(UserNotificationDTO.class)
         );
-        ContainerProperties containerProperties = new ContainerProperties(emailMessageTopic);
-        KafkaMessageListenerContainer<String, EmailMessageDTO> listenerContainer =
+        ContainerProperties containerProperties = new ContainerProperties(userNotificationTopic);
+        KafkaMessageListenerContainer<String, UserNotificationDTO> listenerContainer =
                 new KafkaMessageListenerContainer<>(consumerFactory, containerProperties);
         listenerContainer.setupMessageListener(
-                (MessageListener<String, EmailMessageDTO>) data -> emailMessagesQueue.add(data.value()));
-        listenerContainer.setBeanName("testEmailMessageListener");
+                (MessageListener<String, UserNotificationDTO>) data -> userNotificationsQueue.add(data.value()));
+        listenerContainer.setBeanName("testUserNotificationListener");
         listenerContainer.start();
         ContainerTestUtils.waitForAssignment(listenerContainer, PARTITIONS);
         listenerContainers.add(listenerContainer);
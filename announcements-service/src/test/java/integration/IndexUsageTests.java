@@ -0,0 +1,249 @@
+package integration;
+
+import danix.app.announcements_service.models.Announcement;
+import danix.app.announcements_service.repositories.AnnouncementsRepository;
+import danix.app.announcements_service.repositories.ImagesRepository;
+import danix.app.announcements_service.repositories.LikesRepository;
+import danix.app.announcements_service.repositories.ReportsRepository;
+import danix.app.announcements_service.repositories.WatchesRepository;
+import danix.app.announcements_service.util.FeedCursor;
+import danix.app.announcements_service.util.SortData;
+import danix.app.announcements_service.util.SortType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import util.TestUtil;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class IndexUsageTests {
+
+    @Autowired
+    private AnnouncementsRepository announcementsRepository;
+
+    @Autowired
+    private ImagesRepository imagesRepository;
+
+    @Autowired
+    private LikesRepository likesRepository;
+
+    @Autowired
+    private WatchesRepository watchesRepository;
+
+    @Autowired
+    private ReportsRepository reportsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final PostgreSQLContainer<?> POSTGRE_SQL = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    private static final String COUNTRY = "country";
+
+    private static final String CITY = "city";
+
+    private static final List<String> TYPES = List.of("type1", "type2");
+
+    private static final String TYPE_INDEX = "announcements_country_city_type_id_idx";
+
+    private static final String SEARCH_VECTOR_INDEX = "announcements_search_vector_idx";
+
+    private static final String OWNER_INDEX = "announcements_owner_id_id_idx";
+
+    private static final String CREATED_AT_INDEX = "announcements_created_at_id_idx";
+
+    private static final String PRIMARY_KEY = "announcement_pkey";
+
+    private static final String IMAGES_INDEX = "announcements_images_announcement_id_idx";
+
+    private static final String LIKES_ANNOUNCEMENT_INDEX = "announcements_likes_announcement_id_user_id_idx";
+
+    private static final String LIKES_USER_INDEX = "announcements_likes_user_id_announcement_id_idx";
+
+    private static final String WATCHES_INDEX = "announcements_watches_announcement_id_user_id_key";
+
+    private static final String REPORTS_INDEX = "reports_announcement_id_sender_id_idx";
+
+    private static final Pattern USED_INDEX = Pattern.compile(
+            "(?:Index (?:Only )?Scan (?:Backward )?using|Bitmap Index Scan on) (\\S+)");
+
+    private static final String INDEX_WITH_PARENTS = "WITH RECURSIVE parents(oid, relname) AS (" +
+            "SELECT oid, relname FROM pg_class WHERE relname = ? " +
+            "UNION ALL SELECT c.oid, c.relname FROM parents p " +
+            "JOIN pg_inherits i ON i.inhrelid = p.oid JOIN pg_class c ON c.oid = i.inhparent) " +
+            "SELECT relname FROM parents";
+
+    @BeforeAll
+    public static void setup() {
+        POSTGRE_SQL.start();
+    }
+
+    @AfterAll
+    public static void cleanUpAll() {
+        POSTGRE_SQL.stop();
+    }
+
+    @DynamicPropertySource
+    public static void configureDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRE_SQL::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRE_SQL::getUsername);
+        registry.add("spring.datasource.password", POSTGRE_SQL::getPassword);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlCaptor.class::getName);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("CALL create_announcements_partition(CURRENT_DATE)");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    public void feedQueriesUseIndexes() {
+        for (SortType sortType : SortType.values()) {
+            String sortIndex = getSortIndex(sortType);
+            PageRequest pageRequest = PageRequest.of(10, 20, Sort.by(Sort.Direction.DESC, sortType.getProperty()));
+            assertIndexScan(() -> announcementsRepository
+                    .findAllProjectionsByCountryAndCity(COUNTRY, CITY, pageRequest), sortIndex);
+            assertIndexScan(() -> announcementsRepository
+                    .findAllProjectionsByCountryAndCityAndTypeIn(COUNTRY, CITY, TYPES, pageRequest),
+                    sortIndex, TYPE_INDEX);
+            SortData sortData = new SortData(sortType, Sort.Direction.DESC);
+            assertIndexScan(() -> announcementsRepository.search("title", COUNTRY, CITY, null, sortData, 10, 20),
+                    sortIndex, SEARCH_VECTOR_INDEX);
+            assertIndexScan(() -> announcementsRepository.search("title", COUNTRY, CITY, TYPES, sortData, 10, 20),
+                    sortIndex, TYPE_INDEX, SEARCH_VECTOR_INDEX);
+            Number value = getCursorValue(sortType);
+            assertIndexScan(() -> announcementsRepository.findFeed(COUNTRY, CITY, null, null, sortData,
+                    new FeedCursor(sortData, value, 10L), 20), sortIndex);
+            assertIndexScan(() -> announcementsRepository.findFeed(COUNTRY, CITY, null, TYPES, sortData,
+                    new FeedCursor(sortData, value, 10L), 20), sortIndex, TYPE_INDEX);
+        }
+    }
+
+    @Test
+    public void ownerQueriesUseIndexes() {
+        PageRequest pageRequest = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id"));
+        assertIndexScan(() -> announcementsRepository.findIdsByOwnerId(1L, pageRequest), OWNER_INDEX);
+        assertIndexScan(() -> announcementsRepository.findAllProjectionsByOwnerId(1L, pageRequest), OWNER_INDEX);
+        assertIndexScan(() -> announcementsRepository.countByOwnerId(1L), OWNER_INDEX);
+    }
+
+    @Test
+    public void expiryAndDeleteQueriesUseIndexes() {
+        LocalDateTime time = LocalDateTime.now().minusDays(30);
+        assertIndexScan(() -> announcementsRepository.findExpired(time, Limit.of(50)), CREATED_AT_INDEX);
+        assertIndexScan(() -> announcementsRepository.findExpiredAfter(time, time.minusDays(1), 10L, Limit.of(50)),
+                CREATED_AT_INDEX);
+        assertIndexScan(() -> imagesRepository.findFileNamesByAnnouncementIdIn(List.of(1L, 2L, 3L)), IMAGES_INDEX);
+        assertIndexScan(() -> announcementsRepository.deleteAllByIdIn(List.of(1L, 2L, 3L)), PRIMARY_KEY);
+        assertIndexScan(() -> announcementsRepository.deleteById(1L), PRIMARY_KEY);
+    }
+
+    @Test
+    public void likesWatchesAndReportsLookupsUseIndexes() {
+        Announcement announcement = TestUtil.getTestAnnouncement();
+        announcement.setId(null);
+        announcementsRepository.saveAndFlush(announcement);
+        assertIndexScan(() -> likesRepository.findByAnnouncementAndUserId(announcement, 1L),
+                LIKES_ANNOUNCEMENT_INDEX, LIKES_USER_INDEX);
+        assertIndexScan(() -> likesRepository.findAnnouncementsIdsByUserId(1L), LIKES_USER_INDEX);
+        assertIndexScan(() -> watchesRepository.findByAnnouncementAndUserId(announcement, 1L), WATCHES_INDEX);
+        assertIndexScan(() -> reportsRepository.findByAnnouncementAndSenderId(announcement, 1L), REPORTS_INDEX);
+    }
+
+    private void assertIndexScan(Runnable query, String... expectedIndexes) {
+        SqlCaptor.STATEMENTS.clear();
+        query.run();
+        String sql = SqlCaptor.STATEMENTS.getLast();
+        StringBuilder plan = new StringBuilder();
+        Set<String> usedIndexes = new HashSet<>();
+        for (String line : jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + toPositionalParameters(sql),
+                String.class)) {
+            plan.append(line).append('\n');
+            Matcher matcher = USED_INDEX.matcher(line);
+            while (matcher.find()) {
+                usedIndexes.addAll(jdbcTemplate.queryForList(INDEX_WITH_PARENTS, String.class, matcher.group(1)));
+            }
+        }
+        assertFalse(plan.toString().contains("Seq Scan"), () -> sql + "\n" + plan);
+        assertTrue(Arrays.stream(expectedIndexes).anyMatch(usedIndexes::contains),
+                () -> "Expected one of " + Arrays.toString(expectedIndexes) + "\n" + sql + "\n" + plan);
+    }
+
+    private String getSortIndex(SortType sortType) {
+        String column = sortType.getColumn();
+        return column.equals("id") ? "announcements_country_city_id_idx" :
+                "announcements_country_city_" + column + "_id_idx";
+    }
+
+    private Number getCursorValue(SortType sortType) {
+        if (sortType == SortType.PRICE) {
+            return 10.0;
+        }
+        if (sortType == SortType.ID || sortType == SortType.RELEVANCE) {
+            return 10L;
+        }
+        return 10;
+    }
+
+    private String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder();
+        int position = 1;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                result.append('$').append(position++);
+            }
+            else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+    @Configuration
+    @AutoConfigurationPackage(basePackages = "danix.app.announcements_service")
+    static class IndexUsageConfig {
+    }
+
+}
@@ -0,0 +1,147 @@
+package integration;
+
+import danix.app.announcements_service.models.Announcement;
+import danix.app.announcements_service.repositories.AnnouncementProjection;
+import danix.app.announcements_service.repositories.AnnouncementsRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the former two-query listing path with the single projection query. It is skipped unless
+ * {@code benchmark.rows} is set, and only logs the average latency of every path, for example:
+ * {@code mvn test -Dtest=ListingQueryBenchmarkTests -Dbenchmark.rows=1000000}.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+public class ListingQueryBenchmarkTests {
+
+    @Autowired
+    private AnnouncementsRepository announcementsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final PostgreSQLContainer<?> POSTGRE_SQL = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int ITERATIONS = 50;
+
+    private static final String COUNTRY = "country";
+
+    private static final String CITY = "city1";
+
+    private static final Sort ID_SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    @BeforeAll
+    public static void setup() {
+        POSTGRE_SQL.start();
+    }
+
+    @AfterAll
+    public static void cleanUpAll() {
+        POSTGRE_SQL.stop();
+    }
+
+    @DynamicPropertySource
+    public static void configureDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRE_SQL::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRE_SQL::getUsername);
+        registry.add("spring.datasource.password", POSTGRE_SQL::getPassword);
+        registry.add("spring.jpa.properties.hibernate.show_sql", () -> false);
+    }
+
+    @Test
+    public void compareListingPaths() {
+        seed(Integer.parseInt(System.getProperty("benchmark.rows")));
+        for (int page : List.of(0, 10, 100)) {
+            PageRequest pageRequest = PageRequest.of(page, PAGE_SIZE, ID_SORT);
+            List<Long> before = measure("ids + IN fetch", page, () -> findPageWithTwoQueries(pageRequest).stream()
+                    .map(Announcement::getId)
+                    .toList());
+            List<Long> after = measure("single projection query", page, () -> announcementsRepository
+                    .findAllProjectionsByCountryAndCity(COUNTRY, CITY, pageRequest).stream()
+                    .map(AnnouncementProjection::getId)
+                    .toList());
+            assertEquals(before, after);
+        }
+    }
+
+    private List<Announcement> findPageWithTwoQueries(PageRequest pageRequest) {
+        List<Long> ids = entityManager.createQuery("SELECT a.id FROM Announcement a " +
+                        "WHERE a.country = :country AND a.city = :city ORDER BY a.id DESC", Long.class)
+                .setParameter("country", COUNTRY)
+                .setParameter("city", CITY)
+                .setFirstResult((int) pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize())
+                .getResultList();
+        return entityManager.createQuery("SELECT DISTINCT a FROM Announcement a LEFT JOIN FETCH a.images " +
+                        "WHERE a.id IN (:ids) ORDER BY a.id DESC", Announcement.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private List<Long> measure(String name, int page, Supplier<List<Long>> query) {
+        List<Long> result = query.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+            entityManager.clear();
+        }
+        long averageMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+        log.info("{}: page {}, average latency {} us", name, page, averageMicros);
+        return result;
+    }
+
+    private void seed(int rows) {
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("CALL create_announcements_partition(CURRENT_DATE - ?)", i);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO announcements (owner_id, title, description, price, created_at, type, phone_number,
+                                           country, city, likes, watches)
+                SELECT g % 10000, 'title ' || g, 'description', g % 1000, now() - (g % 30) * interval '1 day',
+                       'type' || (g % 20), 'phone', 'country', 'city' || (g % 10), g % 100, g % 1000
+                FROM generate_series(1, ?) g
+                """, rows);
+        jdbcTemplate.update("""
+                INSERT INTO announcements_images (file_name, announcement_id, announcement_created_at)
+                SELECT gen_random_uuid() || '.jpg', id, created_at FROM announcements
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Configuration
+    @AutoConfigurationPackage(basePackages = "danix.app.announcements_service")
+    static class BenchmarkConfig {
+    }
+
+}
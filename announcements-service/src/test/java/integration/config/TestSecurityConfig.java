@@ -29,7 +29,8 @@ public class TestSecurityConfig {
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/error")
                         .permitAll()
-                        .requestMatchers(HttpMethod.GET, "/announcements", "/announcements/find", "/announcements/{id}")
+                        .requestMatchers(HttpMethod.GET, "/announcements", "/announcements/find", "/announcements/{id}",
+                                "/announcements/find/feed")
                         .permitAll()
                         .requestMatchers("/announcements/expired")
                         .access(testAccessKeyAuthManager())
@@ -0,0 +1,89 @@
+package modules;
+
+import danix.app.announcements_service.dto.ResponseAnnouncementDTO;
+import danix.app.announcements_service.feign.CurrencyConverterAPI;
+import danix.app.announcements_service.mapper.AnnouncementMapper;
+import danix.app.announcements_service.mapper.AnnouncementMapperImpl;
+import danix.app.announcements_service.models.Announcement;
+import danix.app.announcements_service.services.impl.CurrencyConverterServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import util.TestUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static danix.app.announcements_service.util.CurrencyCode.EUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+public class AnnouncementMapperBenchmarkTests {
+
+    @Mock
+    private CurrencyConverterAPI converterAPI;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private CurrencyConverterServiceImpl currencyConverterService;
+
+    private final AnnouncementMapper announcementMapper = new AnnouncementMapperImpl();
+
+    private static final long REMOTE_LOOKUP_MILLIS = 20;
+
+    private static final int ITERATIONS = 20;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(announcementMapper, "currencyConverterService", currencyConverterService);
+        when(converterAPI.getCourse(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(REMOTE_LOOKUP_MILLIS);
+            return Map.of("quotes", Map.of("USDEUR", 0.5, "USDBYN", 3.0, "USDRUB", 90.0));
+        });
+    }
+
+    @Test
+    public void mappingCostPerPageDoesNotGrowWithRemoteLookups() {
+        for (int pageSize : List.of(10, 50, 200)) {
+            List<Announcement> page = getPage(pageSize);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                List<ResponseAnnouncementDTO> response = announcementMapper.toResponseDTOList(page, EUR);
+                assertEquals(pageSize, response.size());
+                response.forEach(responseDTO -> assertEquals(50.0, responseDTO.getPrice()));
+            }
+            long averageMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+            log.info("Page size: {}, average mapping time: {} us", pageSize, averageMicros);
+        }
+        verify(converterAPI, times(1)).getCourse(any(), any(), any(), anyInt());
+    }
+
+    private List<Announcement> getPage(int size) {
+        List<Announcement> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Announcement announcement = TestUtil.getTestAnnouncement();
+            announcement.setId((long) i);
+            announcement.setImages(Collections.emptyList());
+            page.add(announcement);
+        }
+        return page;
+    }
+
+}
@@ -2,14 +2,17 @@ package modules;
 
 import danix.app.announcements_service.dto.*;
 import danix.app.announcements_service.feign.FilesAPI;
-import danix.app.announcements_service.feign.UsersAPI;
 import danix.app.announcements_service.mapper.AnnouncementMapper;
 import danix.app.announcements_service.mapper.ReportMapper;
 import danix.app.announcements_service.models.*;
 import danix.app.announcements_service.repositories.*;
 import danix.app.announcements_service.util.SecurityUtil;
 import danix.app.announcements_service.models.User;
+import danix.app.announcements_service.services.AnnouncementsCacheService;
+import danix.app.announcements_service.services.CountersService;
 import danix.app.announcements_service.services.CurrencyConverterService;
+import danix.app.announcements_service.services.LikedAnnouncementsService;
+import danix.app.announcements_service.services.WatchesService;
 import danix.app.announcements_service.services.impl.AnnouncementsServiceImpl;
 import danix.app.announcements_service.util.AnnouncementException;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +34,7 @@ import static org.mockito.Mockito.*;
 import static util.TestUtil.getTestAnnouncement;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 @Slf4j
@@ -43,9 +47,6 @@ public class AnnouncementsServiceTests {
     @Mock
     private ImagesRepository imagesRepository;
 
-    @Mock
-    private WatchesRepository watchesRepository;
-
     @Mock
     private LikesRepository likesRepository;
 
@@ -59,13 +60,22 @@ public class AnnouncementsServiceTests {
     private CurrencyConverterService currencyConverterService;
 
     @Mock
-    private UsersAPI usersAPI;
+    private CountersService countersService;
+
+    @Mock
+    private WatchesService watchesService;
+
+    @Mock
+    private AnnouncementsCacheService announcementsCacheService;
+
+    @Mock
+    private LikedAnnouncementsService likedAnnouncementsService;
 
     @Mock
     private KafkaTemplate<String, List<String>> listKafkaTemplate;
 
     @Mock
-    private KafkaTemplate<String, EmailMessageDTO> emailMessageKafkaTemplate;
+    private KafkaTemplate<String, UserNotificationDTO> userNotificationKafkaTemplate;
 
     @Mock
     private AnnouncementMapper announcementMapper;
@@ -81,16 +91,17 @@ public class AnnouncementsServiceTests {
 
     private final String deletedAnnouncementTopic = "deleted_announcement";
 
-    private final String emailMessageTopic = "email_message";
+    private final String userNotificationTopic = "user_notification";
 
     private static final User testUser = TestUtil.getTestUser();
 
     @BeforeEach
     public void setUp() {
         ReflectionTestUtils.setField(announcementsService, "listKafkaTemplate", listKafkaTemplate);
-        ReflectionTestUtils.setField(announcementsService, "emailMessageKafkaTemplate", emailMessageKafkaTemplate);
+        ReflectionTestUtils.setField(announcementsService, "userNotificationKafkaTemplate",
+                userNotificationKafkaTemplate);
         ReflectionTestUtils.setField(announcementsService, "deletedAnnouncementTopic", deletedAnnouncementTopic);
-        ReflectionTestUtils.setField(announcementsService, "emailMessageTopic", emailMessageTopic);
+        ReflectionTestUtils.setField(announcementsService, "userNotificationTopic", userNotificationTopic);
     }
 
     @Test
@@ -185,7 +196,8 @@ public class AnnouncementsServiceTests {
         when(likesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.empty());
         announcementsService.addLike(announcement.getId());
         verify(likesRepository).save(any(Like.class));
-        assertEquals(1, announcement.getLikesCount());
+        verify(countersService).addLikes(announcement.getId(), announcement.getCreatedAt(), 1);
+        verify(likedAnnouncementsService).addLike(testUser.getId(), announcement.getId());
     }
 
     @Test
@@ -212,7 +224,8 @@ public class AnnouncementsServiceTests {
         when(likesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.of(new Like()));
         announcementsService.deleteLike(announcement.getId());
         verify(likesRepository).delete(any(Like.class));
-        assertEquals(0, announcement.getLikesCount());
+        verify(countersService).addLikes(announcement.getId(), announcement.getCreatedAt(), -1);
+        verify(likedAnnouncementsService).deleteLike(testUser.getId(), announcement.getId());
     }
 
     @Test
@@ -236,14 +249,16 @@ public class AnnouncementsServiceTests {
         Announcement announcement = getTestAnnouncement();
         mockCurrentUser();
         when(announcementsRepository.findById(announcement.getId())).thenReturn(Optional.of(announcement));
-        when(watchesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.empty());
-        when(announcementMapper.toShowDTO(announcement, USD)).thenReturn(new ShowAnnouncementDTO());
-        when(likesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.empty());
+        ShowAnnouncementDTO cachedDTO = new ShowAnnouncementDTO();
+        cachedDTO.setCreatedAt(announcement.getCreatedAt());
+        when(announcementMapper.toShowDTO(announcement, USD)).thenReturn(cachedDTO);
+        mockAnnouncementsCache();
+        mockCounters(announcement.getId(), 0, 0);
+        when(likedAnnouncementsService.isLiked(testUser.getId(), announcement.getId())).thenReturn(false);
         when(securityUtil.isAuthenticated()).thenReturn(true);
         ReflectionTestUtils.setField(announcementsService, "storageDays", 30);
         ShowAnnouncementDTO showDTO = announcementsService.show(announcement.getId(), USD);
-        verify(watchesRepository).save(any(Watch.class));
-        assertEquals(1, announcement.getWatchesCount());
+        verify(watchesService).record(announcement.getId(), announcement.getCreatedAt(), testUser.getId());
         assertEquals(announcement.getCreatedAt().plusDays(30), showDTO.getExpiredDate());
         assertFalse(showDTO.isLiked());
     }
@@ -253,9 +268,10 @@ public class AnnouncementsServiceTests {
         Announcement announcement = getTestAnnouncement();
         mockCurrentUser();
         when(announcementsRepository.findById(announcement.getId())).thenReturn(Optional.of(announcement));
-        when(watchesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.of(new Watch()));
         when(announcementMapper.toShowDTO(announcement, USD)).thenReturn(new ShowAnnouncementDTO());
-        when(likesRepository.findByAnnouncementAndUserId(announcement, testUser.getId())).thenReturn(Optional.of(new Like()));
+        mockAnnouncementsCache();
+        mockCounters(announcement.getId(), 0, 0);
+        when(likedAnnouncementsService.isLiked(testUser.getId(), announcement.getId())).thenReturn(true);
         when(securityUtil.isAuthenticated()).thenReturn(true);
         ShowAnnouncementDTO showDTO = announcementsService.show(announcement.getId(), USD);
         assertTrue(showDTO.isLiked());
@@ -267,15 +283,48 @@ public class AnnouncementsServiceTests {
         Announcement announcement = getTestAnnouncement();
         when(announcementsRepository.findById(announcement.getId())).thenReturn(Optional.of(announcement));
         when(announcementMapper.toShowDTO(announcement, USD)).thenReturn(new ShowAnnouncementDTO());
+        mockAnnouncementsCache();
+        mockCounters(announcement.getId(), 0, 0);
         ShowAnnouncementDTO showDTO = announcementsService.show(announcement.getId(), USD);
-        verify(watchesRepository, never()).findByAnnouncementAndUserId(any(), any());
-        verify(likesRepository, never()).findByAnnouncementAndUserId(any(), any());
+        verify(watchesService, never()).record(any(), any(), any());
+        verify(likedAnnouncementsService, never()).isLiked(any(), any());
         assertFalse(showDTO.isLiked());
     }
 
+    @Test
+    public void showOverlaysCurrentCountersOnCachedAnnouncement() {
+        when(securityUtil.isAuthenticated()).thenReturn(false);
+        Announcement announcement = getTestAnnouncement();
+        ShowAnnouncementDTO cachedDTO = new ShowAnnouncementDTO();
+        cachedDTO.setCreatedAt(announcement.getCreatedAt());
+        cachedDTO.setLikesCount(1);
+        cachedDTO.setWatchesCount(1);
+        when(announcementsCacheService.get(eq(announcement.getId()), any())).thenReturn(cachedDTO);
+        when(announcementMapper.copy(cachedDTO)).thenReturn(new ShowAnnouncementDTO());
+        mockCounters(announcement.getId(), 5, 7);
+        ShowAnnouncementDTO showDTO = announcementsService.show(announcement.getId(), USD);
+        assertEquals(5, showDTO.getLikesCount());
+        assertEquals(7, showDTO.getWatchesCount());
+        assertEquals(1, cachedDTO.getLikesCount());
+        verify(announcementsRepository, never()).findById(any());
+    }
+
+    @Test
+    public void showWhenCachedAnnouncementWasDeleted() {
+        Announcement announcement = getTestAnnouncement();
+        ShowAnnouncementDTO cachedDTO = new ShowAnnouncementDTO();
+        cachedDTO.setCreatedAt(announcement.getCreatedAt());
+        when(announcementsCacheService.get(eq(announcement.getId()), any())).thenReturn(cachedDTO);
+        when(announcementsRepository.findCounters(announcement.getId(), announcement.getCreatedAt()))
+                .thenReturn(Optional.empty());
+        assertThrows(AnnouncementException.class, () -> announcementsService.show(announcement.getId(), USD));
+    }
+
     @Test
     public void showWhenAnnouncementNotFound() {
         when(announcementsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(announcementsCacheService.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ShowAnnouncementDTO>>getArgument(1).get());
         assertThrows(AnnouncementException.class, () -> announcementsService.show(1L, USD));
     }
 
@@ -347,6 +396,7 @@ public class AnnouncementsServiceTests {
         announcementsService.delete(announcement.getId());
         verify(announcementsRepository).deleteById(announcement.getId());
         verify(listKafkaTemplate).send(eq(deletedAnnouncementTopic), any());
+        verify(announcementsCacheService).evict(announcement.getId());
     }
 
     @Test
@@ -382,11 +432,10 @@ public class AnnouncementsServiceTests {
         IntStream.range(0, 5).forEach(i -> images.add(new Image("test_name", announcement)));
         announcement.setImages(images);
         when(announcementsRepository.findById(announcement.getId())).thenReturn(Optional.of(announcement));
-        when(usersAPI.getUserEmail(eq(announcement.getOwnerId()), any())).thenReturn(Map.of("data", "test@gmail.com"));
         announcementsService.ban(announcement.getId(), "test_cause");
         verify(announcementsRepository).deleteById(announcement.getId());
         verify(listKafkaTemplate).send(eq(deletedAnnouncementTopic), any());
-        verify(emailMessageKafkaTemplate).send(eq(emailMessageTopic), any());
+        verify(userNotificationKafkaTemplate).send(eq(userNotificationTopic), any());
     }
 
     @Test
@@ -394,11 +443,10 @@ public class AnnouncementsServiceTests {
         Announcement announcement = getTestAnnouncement();
         announcement.setImages(Collections.emptyList());
         when(announcementsRepository.findById(announcement.getId())).thenReturn(Optional.of(announcement));
-        when(usersAPI.getUserEmail(eq(announcement.getOwnerId()), any())).thenReturn(Map.of("data", "test@gmail.com"));
         announcementsService.ban(announcement.getId(), "test_cause");
         verify(announcementsRepository).deleteById(announcement.getId());
         verify(listKafkaTemplate, never()).send(eq(deletedAnnouncementTopic), any());
-        verify(emailMessageKafkaTemplate).send(eq(emailMessageTopic), any());
+        verify(userNotificationKafkaTemplate).send(eq(userNotificationTopic), any());
     }
 
     @Test
@@ -430,6 +478,7 @@ public class AnnouncementsServiceTests {
         assertEquals(updateDTO.getType(), announcement.getType());
         assertEquals(updateDTO.getCity(), announcement.getCity());
         assertEquals(updateDTO.getCountry(), announcement.getCountry());
+        verify(announcementsCacheService).evict(announcement.getId());
     }
 
     @Test
@@ -462,6 +511,19 @@ public class AnnouncementsServiceTests {
         assertThrows(AnnouncementException.class, () -> announcementsService.update(announcement.getId(), UpdateAnnouncementDTO.builder().build()));
     }
 
+    private void mockAnnouncementsCache() {
+        when(announcementsCacheService.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ShowAnnouncementDTO>>getArgument(1).get());
+        when(announcementMapper.copy(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private void mockCounters(Long id, int likes, int watches) {
+        AnnouncementCountersProjection counters = mock(AnnouncementCountersProjection.class);
+        when(counters.getLikesCount()).thenReturn(likes);
+        when(counters.getWatchesCount()).thenReturn(watches);
+        when(announcementsRepository.findCounters(eq(id), any())).thenReturn(Optional.of(counters));
+    }
+
     private void mockCurrentUser() {
         when(securityUtil.getCurrentUser()).thenReturn(testUser);
     }
@@ -0,0 +1,103 @@
+package modules;
+
+import danix.app.announcements_service.services.impl.CountersServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CountersServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private CountersServiceImpl countersService;
+
+    private static final String UPDATE_LIKES = "UPDATE announcements SET likes = likes + ? " +
+            "WHERE id = ? AND created_at = ?";
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @BeforeEach
+    public void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    public void flushAggregatesDeltasPerAnnouncement() {
+        for (int i = 0; i < 3; i++) {
+            countersService.addLikes(1L, CREATED_AT, 1);
+        }
+        countersService.addLikes(2L, CREATED_AT, 1);
+        countersService.addLikes(2L, CREATED_AT, -1);
+        countersService.addLikes(3L, CREATED_AT, -1);
+        countersService.flush();
+        List<Object[]> likes = captureBatch(UPDATE_LIKES);
+        assertEquals(2, likes.size());
+        assertArrayEquals(new Object[]{3, 1L, CREATED_AT}, likes.get(0));
+        assertArrayEquals(new Object[]{-1, 3L, CREATED_AT}, likes.get(1));
+    }
+
+    @Test
+    public void flushWithoutDeltasDoesNotUpdate() {
+        countersService.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void flushKeepsDeltasWhenUpdateFails() {
+        countersService.addLikes(1L, CREATED_AT, 1);
+        when(jdbcTemplate.batchUpdate(eq(UPDATE_LIKES), anyList()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(new int[]{1});
+        countersService.flush();
+        countersService.addLikes(1L, CREATED_AT, 1);
+        countersService.flush();
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.captor();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(UPDATE_LIKES), captor.capture());
+        assertArrayEquals(new Object[]{2, 1L, CREATED_AT}, captor.getValue().getFirst());
+    }
+
+    private List<Object[]> captureBatch(String sql) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(sql), captor.capture());
+        return captor.getValue();
+    }
+
+}
@@ -0,0 +1,96 @@
+package modules;
+
+import danix.app.announcements_service.feign.CurrencyConverterAPI;
+import danix.app.announcements_service.services.impl.CurrencyConverterServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static danix.app.announcements_service.util.CurrencyCode.BYN;
+import static danix.app.announcements_service.util.CurrencyCode.EUR;
+import static danix.app.announcements_service.util.CurrencyCode.USD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrencyConverterServiceTests {
+
+    @Mock
+    private CurrencyConverterAPI converterAPI;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private CurrencyConverterServiceImpl currencyConverterService;
+
+    @Test
+    public void convertPriceWhenCurrencyIsUSD() {
+        assertEquals(100.0, currencyConverterService.convertPrice(USD, course -> 100.0 * course));
+        verify(converterAPI, never()).getCourse(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void convertPriceLoadsRatesOnce() {
+        mockQuotes(Map.of("USDEUR", 0.5, "USDBYN", 3.0, "USDRUB", 90.0));
+        assertNull(currencyConverterService.getRatesAge());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(50.0, currencyConverterService.convertPrice(EUR, course -> 100.0 * course));
+            assertEquals(300.0, currencyConverterService.convertPrice(BYN, course -> 100.0 * course));
+        }
+        verify(converterAPI, times(1)).getCourse(any(), any(), any(), anyInt());
+        assertNotNull(currencyConverterService.getRatesAge());
+    }
+
+    @Test
+    public void convertPrices() {
+        mockQuotes(Map.of("USDEUR", 0.5, "USDBYN", 3.0, "USDRUB", 90.0));
+        List<Double> prices = currencyConverterService.convertPrices(EUR, List.of(100.0, 10.01, 0.0));
+        assertEquals(List.of(50.0, 5.01, 0.0), prices);
+        verify(converterAPI, times(1)).getCourse(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void convertPricesWhenCurrencyIsUSD() {
+        List<Double> prices = List.of(100.0, 10.01);
+        assertEquals(prices, currencyConverterService.convertPrices(USD, prices));
+        verify(converterAPI, never()).getCourse(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void refreshRatesKeepsStaleRatesWhenProviderFails() {
+        mockQuotes(Map.of("USDEUR", 0.5, "USDBYN", 3.0, "USDRUB", 90.0));
+        currencyConverterService.refreshRates();
+        when(converterAPI.getCourse(any(), any(), any(), anyInt())).thenThrow(new RuntimeException("unavailable"));
+        currencyConverterService.refreshRates();
+        assertEquals(50.0, currencyConverterService.convertPrice(EUR, course -> 100.0 * course));
+    }
+
+    @Test
+    public void refreshRatesReplacesRates() {
+        mockQuotes(Map.of("USDEUR", 0.5, "USDBYN", 3.0, "USDRUB", 90.0));
+        currencyConverterService.refreshRates();
+        mockQuotes(Map.of("USDEUR", 0.25));
+        currencyConverterService.refreshRates();
+        assertEquals(25.0, currencyConverterService.convertPrice(EUR, course -> 100.0 * course));
+        assertEquals(300.0, currencyConverterService.convertPrice(BYN, course -> 100.0 * course));
+    }
+
+    private void mockQuotes(Map<String, Object> quotes) {
+        when(converterAPI.getCourse(any(), any(), any(), anyInt())).thenReturn(Map.of("quotes", quotes));
+    }
+
+}
@@ -0,0 +1,405 @@
+package modules;
+
+import danix.app.announcements_service.dto.ExpiryShardDTO;
+import danix.app.announcements_service.dto.ExpiryShardResultDTO;
+import danix.app.announcements_service.dto.UserNotificationDTO;
+import danix.app.announcements_service.repositories.AnnouncementsRepository;
+import danix.app.announcements_service.models.ExpiryShardClaim;
+import danix.app.announcements_service.models.ExpiryWatermark;
+import danix.app.announcements_service.repositories.DeletedAnnouncementProjection;
+import danix.app.announcements_service.repositories.ExpiredAnnouncementProjection;
+import danix.app.announcements_service.repositories.ExpiryShardClaimsRepository;
+import danix.app.announcements_service.repositories.ExpiryWatermarksRepository;
+import danix.app.announcements_service.services.AnnouncementsCacheService;
+import danix.app.announcements_service.services.PartitionsService;
+import danix.app.announcements_service.services.impl.ExpiryServiceImpl;
+import danix.app.announcements_service.util.ShardSupersededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpiryServiceTests {
+
+    @Mock
+    private AnnouncementsRepository announcementsRepository;
+
+    @Mock
+    private ExpiryWatermarksRepository expiryWatermarksRepository;
+
+    @Mock
+    private ExpiryShardClaimsRepository expiryShardClaimsRepository;
+
+    @Mock
+    private AnnouncementsCacheService announcementsCacheService;
+
+    @Mock
+    private PartitionsService partitionsService;
+
+    @Mock
+    private KafkaTemplate<String, List<String>> listKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, UserNotificationDTO> userNotificationKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, ExpiryShardResultDTO> expiryShardResultKafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExpiryServiceImpl expiryService;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.now().minusDays(60);
+
+    private static final String INSTANCE_ID = (String) ReflectionTestUtils.getField(ExpiryServiceImpl.class,
+            "INSTANCE_ID");
+
+    @BeforeEach
+    public void setUp() {
+        expiryService = new ExpiryServiceImpl(announcementsRepository, expiryWatermarksRepository,
+                expiryShardClaimsRepository, announcementsCacheService, partitionsService, listKafkaTemplate,
+                userNotificationKafkaTemplate, expiryShardResultKafkaTemplate, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(expiryService, "deletedAnnouncementTopic", "deleted_announcement");
+        ReflectionTestUtils.setField(expiryService, "userNotificationTopic", "user_notification");
+        ReflectionTestUtils.setField(expiryService, "expiryShardResultTopic", "expiry_shard_result");
+        ReflectionTestUtils.setField(expiryService, "storageDays", 30);
+        ReflectionTestUtils.setField(expiryService, "chunkSize", 2);
+        ReflectionTestUtils.setField(expiryService, "continuousEnabled", true);
+        ReflectionTestUtils.setField(expiryService, "maxSweptRows", 3);
+        expiryService.registerMetrics();
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void deleteExpiredProcessesAllChunksByKeyset() {
+        when(announcementsRepository.findExpired(any(), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L), expired(2L, 10L)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(2L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(3L, 11L)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(3L), eq(Limit.of(2))))
+                .thenReturn(Collections.emptyList());
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(1L, 2L)))
+                .thenReturn(List.of(deleted(1L, 10L, "1.jpg"), deleted(2L, 10L, "2.jpg")));
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(3L)))
+                .thenReturn(List.of(deleted(3L, 11L, null)));
+
+        assertEquals(3, expiryService.deleteExpired());
+
+        verify(listKafkaTemplate, times(1)).send("deleted_announcement", List.of("1.jpg", "2.jpg"));
+        verify(userNotificationKafkaTemplate, times(3)).send(eq("user_notification"), any(UserNotificationDTO.class));
+        verify(announcementsCacheService).evict(List.of(1L, 2L));
+        verify(announcementsCacheService).evict(List.of(3L));
+        assertEquals(3.0, meterRegistry.counter("announcements.expiry.deleted").count());
+        assertEquals(3.0, meterRegistry.get("announcements.expiry.progress").gauge().value());
+    }
+
+    @Test
+    public void deleteExpiredWhenNothingExpired() {
+        when(announcementsRepository.findExpired(any(), eq(Limit.of(2)))).thenReturn(Collections.emptyList());
+
+        assertEquals(0, expiryService.deleteExpired());
+
+        verify(announcementsRepository, never()).deleteAllByIdInReturningImages(any());
+        verify(listKafkaTemplate, never()).send(anyString(), any());
+        verify(userNotificationKafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    public void deleteExpiredDropsExpiredPartitionsAfterPublishingEvents() {
+        LocalDate day = CREATED_AT.toLocalDate();
+        when(partitionsService.findExpiredPartitions(any())).thenReturn(List.of(day));
+        when(announcementsRepository.findExpiredAfter(eq(day.plusDays(1).atStartOfDay()), eq(day.atStartOfDay()),
+                eq(0L), eq(Limit.of(2)))).thenReturn(List.of(expired(1L, 10L)));
+        when(announcementsRepository.findExpiredAfter(eq(day.plusDays(1).atStartOfDay()), eq(CREATED_AT), eq(1L),
+                eq(Limit.of(2)))).thenReturn(Collections.emptyList());
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(1L)))
+                .thenReturn(List.of(deleted(1L, 10L, "1.jpg")));
+        when(announcementsRepository.findExpired(any(), eq(Limit.of(2)))).thenReturn(Collections.emptyList());
+
+        assertEquals(1, expiryService.deleteExpired());
+
+        InOrder order = inOrder(listKafkaTemplate, partitionsService);
+        order.verify(listKafkaTemplate).send("deleted_announcement", List.of("1.jpg"));
+        order.verify(partitionsService).dropPartition(day);
+        verify(userNotificationKafkaTemplate).send(eq("user_notification"), any(UserNotificationDTO.class));
+        verify(announcementsCacheService).evict(List.of(1L));
+        assertEquals(1.0, meterRegistry.counter("announcements.expiry.partitions.dropped").count());
+    }
+
+    @Test
+    public void planShardsSplitsExpiredRangeByDay() {
+        LocalDateTime minCreatedAt = LocalDateTime.now().minusDays(33);
+        when(announcementsRepository.findMinCreatedAt()).thenReturn(minCreatedAt);
+
+        List<ExpiryShardDTO> shards = expiryService.planShards();
+
+        assertEquals(4, shards.size());
+        assertEquals(minCreatedAt.toLocalDate().atStartOfDay(), shards.getFirst().getFrom());
+        for (int i = 1; i < shards.size(); i++) {
+            assertEquals(i, shards.get(i).getShardId());
+            assertEquals(shards.get(i - 1).getTo(), shards.get(i).getFrom());
+        }
+        assertTrue(shards.getLast().getTo().isBefore(LocalDateTime.now().minusDays(29)));
+    }
+
+    @Test
+    public void planShardsWhenNoAnnouncements() {
+        when(announcementsRepository.findMinCreatedAt()).thenReturn(null);
+        assertTrue(expiryService.planShards().isEmpty());
+    }
+
+    @Test
+    public void deleteExpiredShardDropsWholeDayPartition() {
+        LocalDate day = CREATED_AT.toLocalDate();
+        ExpiryShardDTO shard = new ExpiryShardDTO("7", 0, 1, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        when(expiryShardClaimsRepository.claim(day.atStartOfDay(), 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(expiryShardClaimsRepository.findForUpdate(day.atStartOfDay())).thenReturn(Optional.of(claim(shard)));
+        when(partitionsService.findExpiredPartitions(any())).thenReturn(List.of(day));
+        when(announcementsRepository.findExpiredAfter(any(), eq(day.atStartOfDay()), eq(0L), eq(Limit.of(2))))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(0, expiryService.deleteExpired(shard));
+
+        verify(partitionsService).dropPartition(day);
+        verify(announcementsRepository, never()).deleteAllByIdInReturningImages(any());
+    }
+
+    @Test
+    public void deleteExpiredShardPublishesOnlyRowsItDeleted() {
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        ExpiryShardDTO shard = new ExpiryShardDTO("7", 0, 1, from, from.plusHours(1));
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(expiryShardClaimsRepository.findForUpdate(from)).thenReturn(Optional.of(claim(shard)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(from), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L), expired(2L, 11L)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(2L), eq(Limit.of(2))))
+                .thenReturn(Collections.emptyList());
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(1L, 2L)))
+                .thenReturn(List.of(deleted(2L, 11L, "2.jpg")));
+
+        assertEquals(1, expiryService.deleteExpired(shard));
+
+        verify(listKafkaTemplate).send("deleted_announcement", List.of("2.jpg"));
+        ArgumentCaptor<UserNotificationDTO> captor = ArgumentCaptor.captor();
+        verify(userNotificationKafkaTemplate).send(eq("user_notification"), captor.capture());
+        assertEquals(11L, captor.getValue().getUserId());
+        verify(announcementsCacheService).evict(List.of(2L));
+        assertEquals(1.0, meterRegistry.counter("announcements.expiry.deleted").count());
+    }
+
+    @Test
+    public void deleteExpiredShardStopsWhenNewerAttemptTakesOver() {
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        ExpiryShardDTO shard = new ExpiryShardDTO("7", 0, 1, from, from.plusHours(1));
+        ExpiryShardClaim claim = claim(shard);
+        claim.setAttempt(2);
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(expiryShardClaimsRepository.findForUpdate(from)).thenReturn(Optional.of(claim));
+        when(announcementsRepository.findExpiredAfter(any(), eq(from), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L)));
+
+        assertThrows(ShardSupersededException.class, () -> expiryService.deleteExpired(shard));
+
+        verify(announcementsRepository, never()).deleteAllByIdInReturningImages(any());
+        verify(userNotificationKafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    public void deleteExpiredShardStopsWhenSameAttemptIsOwnedByAnotherInstance() {
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        ExpiryShardDTO shard = new ExpiryShardDTO("7", 0, 1, from, from.plusHours(1));
+        ExpiryShardClaim claim = claim(shard);
+        claim.setOwner("other-instance");
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(expiryShardClaimsRepository.findForUpdate(from)).thenReturn(Optional.of(claim));
+        when(announcementsRepository.findExpiredAfter(any(), eq(from), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L)));
+
+        assertThrows(ShardSupersededException.class, () -> expiryService.deleteExpired(shard));
+
+        verify(announcementsRepository, never()).deleteAllByIdInReturningImages(any());
+    }
+
+    @Test
+    public void deleteExpiredShardNeverPassesExpirationTime() {
+        LocalDateTime from = LocalDateTime.now().minusDays(10);
+
+        assertEquals(0, expiryService.deleteExpired(new ExpiryShardDTO("7", 0, 1, from, from.plusDays(1))));
+
+        verify(expiryShardClaimsRepository, never()).claim(any(), anyLong(), anyInt(), anyString());
+        verify(announcementsRepository, never()).findExpiredAfter(any(), any(), any(), any());
+        verify(partitionsService, never()).dropPartition(any());
+    }
+
+    @Test
+    public void expiryShardListenerReportsFailure() {
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(announcementsRepository.findExpiredAfter(any(), eq(from), eq(0L), eq(Limit.of(2))))
+                .thenThrow(new RuntimeException("unavailable"));
+
+        expiryService.expiryShardListener(new ExpiryShardDTO("7", 3, 1, from, from.plusHours(1)));
+
+        ArgumentCaptor<ExpiryShardResultDTO> captor = ArgumentCaptor.captor();
+        verify(expiryShardResultKafkaTemplate).send(eq("expiry_shard_result"), eq("7"), captor.capture());
+        assertEquals(3, captor.getValue().getShardId());
+        assertEquals(1, captor.getValue().getAttempt());
+        assertFalse(captor.getValue().isSuccess());
+    }
+
+    @Test
+    public void expiryShardListenerIgnoresSupersededAttempt() {
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(0);
+
+        expiryService.expiryShardListener(new ExpiryShardDTO("7", 3, 1, from, from.plusHours(1)));
+
+        verify(announcementsRepository, never()).findExpiredAfter(any(), any(), any(), any());
+        verify(expiryShardResultKafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void sweepContinuesFromWatermarkAndCapsRowsPerTick() {
+        ExpiryWatermark watermark = new ExpiryWatermark("announcements");
+        watermark.setLastCreatedAt(CREATED_AT);
+        watermark.setLastId(1L);
+        when(expiryWatermarksRepository.findForUpdate("announcements")).thenReturn(Optional.of(watermark));
+        when(expiryWatermarksRepository.findById("announcements")).thenReturn(Optional.of(watermark));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(1L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(2L, 10L), expired(3L, 10L)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(3L), eq(Limit.of(1))))
+                .thenReturn(List.of(expired(4L, 10L)));
+
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(2L, 3L)))
+                .thenReturn(List.of(deleted(2L, 10L, null), deleted(3L, 10L, null)));
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(4L)))
+                .thenReturn(List.of(deleted(4L, 10L, null)));
+
+        assertEquals(3, expiryService.sweep());
+
+        verify(announcementsRepository, never()).findExpired(any(), any());
+        assertEquals(4L, watermark.getLastId());
+        verify(partitionsService).findExpiredPartitions(CREATED_AT);
+    }
+
+    @Test
+    public void sweepAndShardOverSameRowsPublishEachRowOnce() {
+        ExpiryWatermark watermark = new ExpiryWatermark("announcements");
+        when(expiryWatermarksRepository.findForUpdate("announcements")).thenReturn(Optional.of(watermark));
+        when(expiryWatermarksRepository.findById("announcements")).thenReturn(Optional.of(watermark));
+        when(announcementsRepository.findExpired(any(), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L), expired(2L, 11L)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(CREATED_AT), eq(2L), any()))
+                .thenReturn(Collections.emptyList());
+        when(announcementsRepository.deleteAllByIdInReturningImages(List.of(1L, 2L)))
+                .thenReturn(List.of(deleted(1L, 10L, "1.jpg"), deleted(2L, 11L, null)))
+                .thenReturn(Collections.emptyList());
+        LocalDateTime from = CREATED_AT.toLocalDate().atStartOfDay().plusHours(1);
+        ExpiryShardDTO shard = new ExpiryShardDTO("7", 0, 1, from, from.plusHours(1));
+        when(expiryShardClaimsRepository.claim(from, 7L, 1, INSTANCE_ID)).thenReturn(1);
+        when(expiryShardClaimsRepository.findForUpdate(from)).thenReturn(Optional.of(claim(shard)));
+        when(announcementsRepository.findExpiredAfter(any(), eq(from), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(expired(1L, 10L), expired(2L, 11L)));
+
+        assertEquals(2, expiryService.sweep());
+        assertEquals(0, expiryService.deleteExpired(shard));
+
+        verify(announcementsRepository, times(2)).deleteAllByIdInReturningImages(List.of(1L, 2L));
+        verify(listKafkaTemplate, times(1)).send("deleted_announcement", List.of("1.jpg"));
+        verify(userNotificationKafkaTemplate, times(2)).send(eq("user_notification"), any(UserNotificationDTO.class));
+        assertEquals(2.0, meterRegistry.counter("announcements.expiry.deleted").count());
+    }
+
+    @Test
+    public void sweepWhenDisabled() {
+        ReflectionTestUtils.setField(expiryService, "continuousEnabled", false);
+
+        assertEquals(0, expiryService.sweep());
+
+        verify(expiryWatermarksRepository, never()).findForUpdate(anyString());
+    }
+
+    private ExpiryShardClaim claim(ExpiryShardDTO shard) {
+        ExpiryShardClaim claim = new ExpiryShardClaim();
+        claim.setShardFrom(shard.getFrom());
+        claim.setJobId(Long.parseLong(shard.getJobId()));
+        claim.setAttempt(shard.getAttempt());
+        claim.setOwner(INSTANCE_ID);
+        return claim;
+    }
+
+    private DeletedAnnouncementProjection deleted(Long id, Long ownerId, String fileName) {
+        return new DeletedAnnouncementProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public String getFileName() {
+                return fileName;
+            }
+        };
+    }
+
+    private ExpiredAnnouncementProjection expired(Long id, Long ownerId) {
+        return new ExpiredAnnouncementProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return CREATED_AT;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+package modules;
+
+import danix.app.announcements_service.repositories.LikesRepository;
+import danix.app.announcements_service.services.impl.LikedAnnouncementsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LikedAnnouncementsServiceTests {
+
+    @Mock
+    private LikesRepository likesRepository;
+
+    @Mock
+    private KafkaTemplate<String, Long> kafkaTemplate;
+
+    private LikedAnnouncementsServiceImpl likedAnnouncementsService;
+
+    @BeforeEach
+    public void setUp() {
+        likedAnnouncementsService = new LikedAnnouncementsServiceImpl(likesRepository, kafkaTemplate,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(likedAnnouncementsService, "maxSize", 100L);
+        ReflectionTestUtils.setField(likedAnnouncementsService, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(likedAnnouncementsService, "changedLikesTopic", "changed_likes");
+        likedAnnouncementsService.init();
+    }
+
+    @Test
+    public void isLikedLoadsUserLikesOnce() {
+        when(likesRepository.findAnnouncementsIdsByUserId(1L)).thenReturn(List.of(5L, 2L, 9L));
+        assertTrue(likedAnnouncementsService.isLiked(1L, 2L));
+        assertTrue(likedAnnouncementsService.isLiked(1L, 9L));
+        assertFalse(likedAnnouncementsService.isLiked(1L, 3L));
+        verify(likesRepository, times(1)).findAnnouncementsIdsByUserId(1L);
+    }
+
+    @Test
+    public void getLiked() {
+        when(likesRepository.findAnnouncementsIdsByUserId(1L)).thenReturn(List.of(5L, 2L, 9L));
+        assertEquals(Set.of(2L, 9L), likedAnnouncementsService.getLiked(1L, List.of(1L, 2L, 3L, 9L)));
+    }
+
+    @Test
+    public void addLike() {
+        when(likesRepository.findAnnouncementsIdsByUserId(1L)).thenReturn(List.of(5L));
+        assertFalse(likedAnnouncementsService.isLiked(1L, 3L));
+        likedAnnouncementsService.addLike(1L, 3L);
+        assertTrue(likedAnnouncementsService.isLiked(1L, 3L));
+        assertTrue(likedAnnouncementsService.isLiked(1L, 5L));
+        verify(likesRepository, times(1)).findAnnouncementsIdsByUserId(1L);
+        verify(kafkaTemplate).send(eq("changed_likes"), anyString(), eq(1L));
+    }
+
+    @Test
+    public void deleteLike() {
+        when(likesRepository.findAnnouncementsIdsByUserId(1L)).thenReturn(List.of(3L, 5L));
+        assertTrue(likedAnnouncementsService.isLiked(1L, 3L));
+        likedAnnouncementsService.deleteLike(1L, 3L);
+        assertFalse(likedAnnouncementsService.isLiked(1L, 3L));
+        assertTrue(likedAnnouncementsService.isLiked(1L, 5L));
+        verify(likesRepository, times(1)).findAnnouncementsIdsByUserId(1L);
+        verify(kafkaTemplate).send(eq("changed_likes"), anyString(), eq(1L));
+    }
+
+    @Test
+    public void changedLikesFromOtherInstanceInvalidatesUserLikes() {
+        when(likesRepository.findAnnouncementsIdsByUserId(1L)).thenReturn(List.of(3L));
+        likedAnnouncementsService.isLiked(1L, 3L);
+        likedAnnouncementsService.changedLikesListener("other-instance", 1L);
+        likedAnnouncementsService.isLiked(1L, 3L);
+        verify(likesRepository, times(2)).findAnnouncementsIdsByUserId(1L);
+    }
+
+}
@@ -0,0 +1,134 @@
+package modules;
+
+import danix.app.announcements_service.services.impl.WatchesServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WatchesServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WatchesServiceImpl watchesService;
+
+    private static final String INSERT_WATCH = "INSERT INTO announcements_watches " +
+            "(announcement_id, user_id, announcement_created_at) " +
+            "SELECT id, ?, created_at FROM announcements WHERE id = ? AND created_at = ? " +
+            "ON CONFLICT (announcement_id, user_id, announcement_created_at) DO NOTHING";
+
+    private static final String UPDATE_WATCHES = "UPDATE announcements SET watches = watches + ? " +
+            "WHERE id = ? AND created_at = ?";
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @BeforeEach
+    public void setUp() {
+        watchesService = new WatchesServiceImpl(jdbcTemplate, transactionTemplate, meterRegistry);
+        watchesService.registerMetrics();
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    public void flushInsertsDeduplicatedWatches() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT_WATCH), anyList())).thenReturn(new int[]{1, 0});
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.record(1L, CREATED_AT, 2L);
+        watchesService.flush();
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_WATCH), captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(jdbcTemplate).batchUpdate(eq(UPDATE_WATCHES), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertArrayEquals(new Object[]{1, 1L, CREATED_AT}, captor.getValue().getFirst());
+        assertEquals(1.0, meterRegistry.counter("announcements.watches.duplicates").count());
+    }
+
+    @Test
+    public void flushAggregatesWatchesPerAnnouncement() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT_WATCH), anyList())).thenReturn(new int[]{1, 1});
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.record(1L, CREATED_AT, 2L);
+        watchesService.flush();
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(eq(UPDATE_WATCHES), captor.capture());
+        assertArrayEquals(new Object[]{2, 1L, CREATED_AT}, captor.getValue().getFirst());
+    }
+
+    @Test
+    public void recordSkipsAlreadyFlushedWatches() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT_WATCH), anyList())).thenReturn(new int[]{1});
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.flush();
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(INSERT_WATCH), anyList());
+    }
+
+    @Test
+    public void flushRetriesWatchesWhenCounterUpdateFails() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT_WATCH), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.batchUpdate(eq(UPDATE_WATCHES), anyList()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(new int[]{1});
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.flush();
+        watchesService.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(INSERT_WATCH), anyList());
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(UPDATE_WATCHES), anyList());
+    }
+
+    @Test
+    public void flushDoesNotUpdateCountersWhenInsertFails() {
+        when(jdbcTemplate.batchUpdate(eq(INSERT_WATCH), anyList()))
+                .thenThrow(new RuntimeException("unavailable"))
+                .thenReturn(new int[]{1});
+        watchesService.record(1L, CREATED_AT, 1L);
+        watchesService.flush();
+        verify(jdbcTemplate, never()).batchUpdate(eq(UPDATE_WATCHES), anyList());
+        watchesService.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(INSERT_WATCH), anyList());
+        verify(jdbcTemplate).batchUpdate(eq(UPDATE_WATCHES), anyList());
+    }
+
+    @Test
+    public void flushWithoutWatchesDoesNotInsert() {
+        watchesService.flush();
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+    }
+
+}
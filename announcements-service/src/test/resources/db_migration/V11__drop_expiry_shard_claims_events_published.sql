@@ -0,0 +1 @@
+ALTER TABLE expiry_shard_claims DROP COLUMN events_published;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS announcements_images_announcement_id_idx ON announcements_images (announcement_id, id);
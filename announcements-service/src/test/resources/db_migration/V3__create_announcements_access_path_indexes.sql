@@ -0,0 +1,19 @@
+CREATE INDEX IF NOT EXISTS announcements_country_city_id_idx ON announcements (country, city, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_price_id_idx ON announcements (country, city, price, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_likes_id_idx ON announcements (country, city, likes, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_watches_id_idx ON announcements (country, city, watches, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_type_id_idx ON announcements (country, city, type, id);
+
+CREATE INDEX IF NOT EXISTS announcements_owner_id_id_idx ON announcements (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS announcements_created_at_id_idx ON announcements (created_at, id);
+
+CREATE INDEX IF NOT EXISTS announcements_likes_announcement_id_user_id_idx ON announcements_likes (announcement_id, user_id);
+
+CREATE INDEX IF NOT EXISTS announcements_watches_announcement_id_user_id_idx ON announcements_watches (announcement_id, user_id);
+
+CREATE INDEX IF NOT EXISTS reports_announcement_id_sender_id_idx ON reports (announcement_id, sender_id);
@@ -0,0 +1,223 @@
+ALTER TABLE announcements_images DROP CONSTRAINT IF EXISTS announcements_images_announcement_id_fkey;
+
+ALTER TABLE announcements_likes DROP CONSTRAINT IF EXISTS announcements_likes_announcement_id_fkey;
+
+ALTER TABLE announcements_watches DROP CONSTRAINT IF EXISTS announcements_watches_announcement_id_fkey;
+
+ALTER TABLE reports DROP CONSTRAINT IF EXISTS reports_announcement_id_fkey;
+
+ALTER TABLE announcements RENAME TO announcements_legacy;
+
+ALTER TABLE announcements_images RENAME TO announcements_images_legacy;
+
+ALTER TABLE announcements_likes RENAME TO announcements_likes_legacy;
+
+ALTER TABLE announcements_watches RENAME TO announcements_watches_legacy;
+
+ALTER TABLE reports RENAME TO reports_legacy;
+
+CREATE TABLE announcements
+(
+    id            BIGINT           DEFAULT nextval('announcement_id_seq') NOT NULL,
+    owner_id      BIGINT                                                  NOT NULL,
+    title         VARCHAR                                                 NOT NULL,
+    description   VARCHAR,
+    price         DOUBLE PRECISION                                        NOT NULL,
+    created_at    TIMESTAMP WITHOUT TIME ZONE                             NOT NULL,
+    type          VARCHAR                                                 NOT NULL,
+    phone_number  VARCHAR                                                 NOT NULL,
+    country       VARCHAR                                                 NOT NULL,
+    city          VARCHAR                                                 NOT NULL,
+    likes         INTEGER                                                 NOT NULL,
+    watches       INTEGER          DEFAULT 0                              NOT NULL,
+    search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', title)) STORED
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE announcements_images
+(
+    id                      BIGINT DEFAULT nextval('announcements_images_id_seq') NOT NULL,
+    file_name               VARCHAR                                               NOT NULL,
+    announcement_id         BIGINT                                                NOT NULL,
+    announcement_created_at TIMESTAMP WITHOUT TIME ZONE                           NOT NULL
+) PARTITION BY RANGE (announcement_created_at);
+
+CREATE TABLE announcements_likes
+(
+    id                      BIGINT DEFAULT nextval('announcements_likes_id_seq') NOT NULL,
+    announcement_id         BIGINT                                              NOT NULL,
+    user_id                 BIGINT                                              NOT NULL,
+    announcement_created_at TIMESTAMP WITHOUT TIME ZONE                          NOT NULL
+) PARTITION BY RANGE (announcement_created_at);
+
+CREATE TABLE announcements_watches
+(
+    id                      BIGINT DEFAULT nextval('announcements_watches_id_seq') NOT NULL,
+    announcement_id         BIGINT                                                NOT NULL,
+    user_id                 BIGINT                                                NOT NULL,
+    announcement_created_at TIMESTAMP WITHOUT TIME ZONE                            NOT NULL
+) PARTITION BY RANGE (announcement_created_at);
+
+CREATE TABLE reports
+(
+    id                      BIGINT DEFAULT nextval('reports_id_seq') NOT NULL,
+    announcement_id         BIGINT                                   NOT NULL,
+    cause                   VARCHAR                                  NOT NULL,
+    sender_id               BIGINT                                   NOT NULL,
+    announcement_created_at TIMESTAMP WITHOUT TIME ZONE              NOT NULL
+) PARTITION BY RANGE (announcement_created_at);
+
+CREATE TABLE announcements_default PARTITION OF announcements DEFAULT;
+
+CREATE TABLE announcements_images_default PARTITION OF announcements_images DEFAULT;
+
+CREATE TABLE announcements_likes_default PARTITION OF announcements_likes DEFAULT;
+
+CREATE TABLE announcements_watches_default PARTITION OF announcements_watches DEFAULT;
+
+CREATE TABLE reports_default PARTITION OF reports DEFAULT;
+
+CREATE OR REPLACE PROCEDURE create_announcements_partition(day DATE)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    parent TEXT;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY ['announcements', 'announcements_images', 'announcements_likes',
+        'announcements_watches', 'reports']
+        LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           parent || '_p' || to_char(day, 'YYYYMMDD'), parent, day::TIMESTAMP,
+                           (day + 1)::TIMESTAMP);
+        END LOOP;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE drop_announcements_partition(day DATE)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    parent    TEXT;
+    partition TEXT;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY ['announcements_images', 'announcements_likes', 'announcements_watches',
+        'reports', 'announcements']
+        LOOP
+            partition := parent || '_p' || to_char(day, 'YYYYMMDD');
+            IF to_regclass(partition) IS NOT NULL THEN
+                EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, partition);
+                EXECUTE format('DROP TABLE %I', partition);
+            END IF;
+        END LOOP;
+END;
+$$;
+
+DO
+$$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series(LEAST((SELECT min(created_at)::DATE FROM announcements_legacy), current_date),
+                                      current_date + 7, INTERVAL '1 day')::DATE
+        LOOP
+            CALL create_announcements_partition(day);
+        END LOOP;
+END;
+$$;
+
+INSERT INTO announcements (id, owner_id, title, description, price, created_at, type, phone_number, country, city,
+                           likes, watches)
+SELECT id, owner_id, title, description, price, created_at, type, phone_number, country, city, likes, watches
+FROM announcements_legacy;
+
+INSERT INTO announcements_images (id, file_name, announcement_id, announcement_created_at)
+SELECT i.id, i.file_name, i.announcement_id, a.created_at
+FROM announcements_images_legacy i
+         JOIN announcements_legacy a ON a.id = i.announcement_id;
+
+INSERT INTO announcements_likes (id, announcement_id, user_id, announcement_created_at)
+SELECT l.id, l.announcement_id, l.user_id, a.created_at
+FROM announcements_likes_legacy l
+         JOIN announcements_legacy a ON a.id = l.announcement_id;
+
+INSERT INTO announcements_watches (id, announcement_id, user_id, announcement_created_at)
+SELECT w.id, w.announcement_id, w.user_id, a.created_at
+FROM announcements_watches_legacy w
+         JOIN announcements_legacy a ON a.id = w.announcement_id;
+
+INSERT INTO reports (id, announcement_id, cause, sender_id, announcement_created_at)
+SELECT r.id, r.announcement_id, r.cause, r.sender_id, a.created_at
+FROM reports_legacy r
+         JOIN announcements_legacy a ON a.id = r.announcement_id;
+
+SELECT setval('announcement_id_seq', COALESCE((SELECT max(id) FROM announcements), 0) + 1, false);
+
+SELECT setval('announcements_images_id_seq', COALESCE((SELECT max(id) FROM announcements_images), 0) + 1, false);
+
+SELECT setval('announcements_likes_id_seq', COALESCE((SELECT max(id) FROM announcements_likes), 0) + 1, false);
+
+SELECT setval('announcements_watches_id_seq', COALESCE((SELECT max(id) FROM announcements_watches), 0) + 1, false);
+
+SELECT setval('reports_id_seq', COALESCE((SELECT max(id) FROM reports), 0) + 1, false);
+
+DROP TABLE announcements_images_legacy, announcements_likes_legacy, announcements_watches_legacy, reports_legacy,
+    announcements_legacy;
+
+ALTER TABLE announcements
+    ADD CONSTRAINT announcement_pkey PRIMARY KEY (id, created_at);
+
+ALTER TABLE announcements_images
+    ADD CONSTRAINT announcements_images_pkey PRIMARY KEY (id, announcement_created_at);
+
+ALTER TABLE announcements_likes
+    ADD CONSTRAINT announcements_likes_pkey PRIMARY KEY (id, announcement_created_at);
+
+ALTER TABLE announcements_watches
+    ADD CONSTRAINT announcements_watches_pkey PRIMARY KEY (id, announcement_created_at);
+
+ALTER TABLE reports
+    ADD CONSTRAINT reports_pkey PRIMARY KEY (id, announcement_created_at);
+
+ALTER TABLE announcements_images
+    ADD CONSTRAINT announcements_images_announcement_id_fkey FOREIGN KEY (announcement_id, announcement_created_at)
+        REFERENCES announcements (id, created_at) ON DELETE CASCADE;
+
+ALTER TABLE announcements_likes
+    ADD CONSTRAINT announcements_likes_announcement_id_fkey FOREIGN KEY (announcement_id, announcement_created_at)
+        REFERENCES announcements (id, created_at) ON DELETE CASCADE;
+
+ALTER TABLE announcements_watches
+    ADD CONSTRAINT announcements_watches_announcement_id_fkey FOREIGN KEY (announcement_id, announcement_created_at)
+        REFERENCES announcements (id, created_at) ON DELETE CASCADE;
+
+ALTER TABLE reports
+    ADD CONSTRAINT reports_announcement_id_fkey FOREIGN KEY (announcement_id, announcement_created_at)
+        REFERENCES announcements (id, created_at) ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS announcements_images_announcement_id_idx ON announcements_images (announcement_id, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_id_idx ON announcements (country, city, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_price_id_idx ON announcements (country, city, price, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_likes_id_idx ON announcements (country, city, likes, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_watches_id_idx ON announcements (country, city, watches, id);
+
+CREATE INDEX IF NOT EXISTS announcements_country_city_type_id_idx ON announcements (country, city, type, id);
+
+CREATE INDEX IF NOT EXISTS announcements_owner_id_id_idx ON announcements (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS announcements_created_at_id_idx ON announcements (created_at, id);
+
+CREATE INDEX IF NOT EXISTS announcements_search_vector_idx ON announcements USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS announcements_likes_announcement_id_user_id_idx ON announcements_likes (announcement_id, user_id);
+
+CREATE INDEX IF NOT EXISTS announcements_likes_user_id_announcement_id_idx ON announcements_likes (user_id, announcement_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS announcements_watches_announcement_id_user_id_key
+    ON announcements_watches (announcement_id, user_id, announcement_created_at);
+
+CREATE INDEX IF NOT EXISTS reports_announcement_id_sender_id_idx ON reports (announcement_id, sender_id);
@@ -0,0 +1,9 @@
+CREATE TABLE expiry_watermarks
+(
+    name            VARCHAR NOT NULL,
+    last_created_at TIMESTAMP WITHOUT TIME ZONE,
+    last_id         BIGINT,
+    CONSTRAINT expiry_watermarks_pkey PRIMARY KEY (name)
+);
+
+INSERT INTO expiry_watermarks (name) VALUES ('announcements');
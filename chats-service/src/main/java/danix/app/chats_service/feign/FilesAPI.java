@@ -16,9 +16,6 @@ public interface FilesAPI {
 	void saveImage(@RequestPart MultipartFile image, @RequestParam String fileName,
 			@RequestParam("access_key") String accessKey);
 
-	@GetMapping(value = IMAGE_PATH)
-	byte[] downloadImage(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
-
 	@DeleteMapping(IMAGE_PATH)
 	void deleteImage(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
 
@@ -26,9 +23,6 @@ public interface FilesAPI {
 	void saveVideo(@RequestPart MultipartFile video, @RequestParam String fileName,
 			@RequestParam("access_key") String accessKey);
 
-	@GetMapping(value = VIDEO_PATH)
-	byte[] downloadVideo(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
-
 	@DeleteMapping(VIDEO_PATH)
 	void deleteVideo(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
 
@@ -7,11 +7,11 @@ import danix.app.chats_service.models.User;
 import danix.app.chats_service.services.MessagesService;
 import danix.app.chats_service.util.ChatException;
 import danix.app.chats_service.util.ContentType;
+import danix.app.chats_service.util.DownloadUrlSigner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -19,6 +19,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,6 +36,8 @@ public class MessagesServiceImpl implements MessagesService {
 
 	private final SecurityUtil securityUtil;
 
+	private final DownloadUrlSigner downloadUrlSigner;
+
 	private final KafkaTemplate<String, List<String>> kafkaTemplate;
 
 	@Value("${access_key}")
@@ -45,27 +48,25 @@ public class MessagesServiceImpl implements MessagesService {
 
 	@Override
 	public ResponseEntity<?> getFile(Message message, ContentType contentType) {
-		MediaType mediaType;
-		byte[] data = switch (contentType) {
+		URI location = switch (contentType) {
 			case IMAGE -> {
 				if (message.getContentType() != ContentType.IMAGE) {
 					throw new ChatException("Message is not image");
 				}
-				mediaType = MediaType.IMAGE_JPEG;
-				yield filesAPI.downloadImage(message.getText(), accessKey);
+				yield downloadUrlSigner.sign(FilesAPI.IMAGE_PATH, message.getText());
 			}
 			case VIDEO -> {
 				if (message.getContentType() != ContentType.VIDEO) {
 					throw new ChatException("Message is not video");
 				}
-				mediaType = MediaType.parseMediaType("video/mp4");
-				yield filesAPI.downloadVideo(message.getText(), accessKey);
+				yield downloadUrlSigner.sign(FilesAPI.VIDEO_PATH, message.getText());
 			}
 			default -> throw new IllegalArgumentException("Invalid content type");
 		};
-		return ResponseEntity.status(HttpStatus.OK)
-				.contentType(mediaType)
-				.body(data);
+		return ResponseEntity.status(HttpStatus.FOUND)
+				.location(location)
+				.cacheControl(downloadUrlSigner.cacheControl())
+				.build();
 	}
 
 	@Override
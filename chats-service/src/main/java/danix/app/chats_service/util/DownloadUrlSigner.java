@@ -0,0 +1,51 @@
+package danix.app.chats_service.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+public class DownloadUrlSigner {
+
+    private final SecretKeySpec key;
+
+    private final long ttlSeconds;
+
+    private final String prefix;
+
+    public DownloadUrlSigner(@Value("${access_key}") String accessKey,
+                             @Value("${download_url_ttl}") Duration ttl,
+                             @Value("${download_url_prefix}") String prefix) {
+        this.key = DownloadSignature.createKey(accessKey);
+        this.ttlSeconds = Math.max(1, ttl.toSeconds());
+        this.prefix = prefix;
+    }
+
+    public URI sign(String path, String fileName) {
+        return sign(path, fileName, null);
+    }
+
+    public URI sign(String path, String fileName, Integer size) {
+        long expires = (Instant.now().getEpochSecond() / ttlSeconds + 2) * ttlSeconds;
+        return UriComponentsBuilder.fromPath(prefix + path)
+                .queryParam("fileName", fileName)
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .queryParam("expires", expires)
+                .queryParam("signature", DownloadSignature.sign(key, path, fileName, size, expires))
+                .encode()
+                .build()
+                .toUri();
+    }
+
+    public CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(ttlSeconds)).cachePrivate();
+    }
+
+}
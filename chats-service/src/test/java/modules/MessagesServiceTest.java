@@ -8,12 +8,14 @@ import danix.app.chats_service.models.User;
 import danix.app.chats_service.services.impl.MessagesServiceImpl;
 import danix.app.chats_service.util.ChatException;
 import danix.app.chats_service.util.ContentType;
+import danix.app.chats_service.util.DownloadUrlSigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.CacheControl;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -39,6 +41,9 @@ public class MessagesServiceTest {
     @Mock
     private SecurityUtil securityUtil;
 
+    @Mock
+    private DownloadUrlSigner downloadUrlSigner;
+
     @Mock
     private Runnable deleteFunction;
 
@@ -69,15 +74,17 @@ public class MessagesServiceTest {
     @Test
     public void getFileWhenContentTypeImage() {
         testMessage.setContentType(ContentType.IMAGE);
+        when(downloadUrlSigner.cacheControl()).thenReturn(CacheControl.noCache());
         messagesService.getFile(testMessage, ContentType.IMAGE);
-        verify(filesAPI).downloadImage(testMessage.getText(), accessKey);
+        verify(downloadUrlSigner).sign(FilesAPI.IMAGE_PATH, testMessage.getText());
     }
 
     @Test
     public void getFileWhenContentTypeVideo() {
         testMessage.setContentType(ContentType.VIDEO);
+        when(downloadUrlSigner.cacheControl()).thenReturn(CacheControl.noCache());
         messagesService.getFile(testMessage, ContentType.VIDEO);
-        verify(filesAPI).downloadVideo(testMessage.getText(), accessKey);
+        verify(downloadUrlSigner).sign(FilesAPI.VIDEO_PATH, testMessage.getText());
     }
 
     @Test
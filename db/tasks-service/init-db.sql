@@ -0,0 +1 @@
+CREATE DATABASE tasks_service_db;
\ No newline at end of file
@@ -2,10 +2,12 @@ package danix.app.email_sender_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication
 @EnableKafka
+@EnableFeignClients
 public class EmailSenderServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,15 +1,25 @@
 package danix.app.email_sender_service.config;
 
 import danix.app.email_sender_service.dto.EmailMessageDTO;
+import danix.app.email_sender_service.dto.UserNotificationDTO;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,7 +33,7 @@ public class KafkaConsumersConfig {
 	@Value("${spring.kafka.consumer.group-id}")
 	private String groupId;
 
-	private ConsumerFactory<String, EmailMessageDTO> consumerFactory() {
+	private <T> ConsumerFactory<String, T> consumerFactory(Class<T> type) {
 		Map<String, Object> props = new HashMap<>();
 		props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
 		props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -34,15 +44,35 @@ public class KafkaConsumersConfig {
 		return new DefaultKafkaConsumerFactory<>(
 				props,
 				new StringDeserializer(),
-				new JsonDeserializer<>(EmailMessageDTO.class)
+				new JsonDeserializer<>(type)
 		);
 	}
 
 	@Bean
 	public ConcurrentKafkaListenerContainerFactory<String, EmailMessageDTO> messageFactory() {
 		var factory = new ConcurrentKafkaListenerContainerFactory<String, EmailMessageDTO>();
-		factory.setConsumerFactory(consumerFactory());
+		factory.setConsumerFactory(consumerFactory(EmailMessageDTO.class));
 		return factory;
 	}
 
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<String, UserNotificationDTO> notificationFactory() {
+		var factory = new ConcurrentKafkaListenerContainerFactory<String, UserNotificationDTO>();
+		factory.setConsumerFactory(consumerFactory(UserNotificationDTO.class));
+		factory.setBatchListener(true);
+		factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer(),
+				new FixedBackOff(5000, 10)));
+		return factory;
+	}
+
+	private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+		Map<String, Object> props = new HashMap<>();
+		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+		props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+		return new DeadLetterPublishingRecoverer(new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props)),
+				(record, e) -> new TopicPartition(record.topic() + "-dlt", -1));
+	}
+
 }
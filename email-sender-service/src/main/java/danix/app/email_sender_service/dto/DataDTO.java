@@ -0,0 +1,10 @@
+package danix.app.email_sender_service.dto;
+
+import lombok.Data;
+
+@Data
+public class DataDTO<T> {
+
+    private T data;
+
+}
@@ -0,0 +1,12 @@
+package danix.app.email_sender_service.dto;
+
+import lombok.Data;
+
+@Data
+public class UserNotificationDTO {
+
+    private Long userId;
+
+    private String message;
+
+}
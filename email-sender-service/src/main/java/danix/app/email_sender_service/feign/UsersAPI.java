@@ -0,0 +1,18 @@
+package danix.app.email_sender_service.feign;
+
+import danix.app.email_sender_service.dto.DataDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "users-service")
+public interface UsersAPI {
+
+    @PostMapping("/users/emails")
+    DataDTO<Map<Long, String>> getUsersEmails(@RequestBody List<Long> ids, @RequestParam("access_key") String accessKey);
+
+}
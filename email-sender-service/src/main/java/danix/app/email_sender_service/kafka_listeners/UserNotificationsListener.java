@@ -0,0 +1,46 @@
+package danix.app.email_sender_service.kafka_listeners;
+
+import danix.app.email_sender_service.dto.UserNotificationDTO;
+import danix.app.email_sender_service.services.EmailSenderService;
+import danix.app.email_sender_service.services.UsersEmailsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserNotificationsListener {
+
+	private final EmailSenderService emailSenderService;
+
+	private final UsersEmailsService usersEmailsService;
+
+	@KafkaListener(topics = "${user-notification-kafka-topic}", containerFactory = "notificationFactory")
+	public void receiveNotifications(List<UserNotificationDTO> notifications) {
+		Set<Long> usersIds = notifications.stream()
+				.map(UserNotificationDTO::getUserId)
+				.collect(Collectors.toSet());
+		Map<Long, String> emails = usersEmailsService.getEmails(usersIds);
+		notifications.forEach(notification -> {
+			String email = emails.get(notification.getUserId());
+			if (email == null) {
+				log.warn("Email of user {} not found, notification skipped", notification.getUserId());
+				return;
+			}
+			try {
+				emailSenderService.sendMessage(email, notification.getMessage());
+			}
+			catch (Exception e) {
+				log.error("Error send notification to user {}: {}", notification.getUserId(), e.getMessage());
+			}
+		});
+	}
+
+}
@@ -0,0 +1,10 @@
+package danix.app.email_sender_service.services;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UsersEmailsService {
+
+    Map<Long, String> getEmails(Collection<Long> usersIds);
+
+}
@@ -0,0 +1,62 @@
+package danix.app.email_sender_service.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danix.app.email_sender_service.feign.UsersAPI;
+import danix.app.email_sender_service.services.UsersEmailsService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class UsersEmailsServiceImpl implements UsersEmailsService {
+
+	private final UsersAPI usersAPI;
+
+	@Value("${access_key}")
+	private String accessKey;
+
+	@Value("${users_emails_cache_max_size}")
+	private long maxSize;
+
+	@Value("${users_emails_cache_ttl}")
+	private Duration ttl;
+
+	private Cache<Long, String> emails;
+
+	private static final int MAX_IDS_PER_REQUEST = 1000;
+
+	@PostConstruct
+	public void init() {
+		emails = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	@Override
+	public Map<Long, String> getEmails(Collection<Long> usersIds) {
+		return emails.getAll(usersIds, this::load);
+	}
+
+	private Map<Long, String> load(Set<? extends Long> usersIds) {
+		List<Long> ids = new ArrayList<>(usersIds);
+		Map<Long, String> result = new HashMap<>();
+		for (int i = 0; i < ids.size(); i += MAX_IDS_PER_REQUEST) {
+			List<Long> batch = ids.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, ids.size()));
+			result.putAll(usersAPI.getUsersEmails(batch, accessKey).getData());
+		}
+		return result;
+	}
+
+}
@@ -1,30 +1,81 @@
 package danix.app.files_service.config;
 
+import danix.app.files_service.util.DownloadSignature;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 public class AccessKeyFilter extends OncePerRequestFilter {
 
 	@Value("${access_key}")
 	private String key;
 
+	private SecretKeySpec signingKey;
+
+	@PostConstruct
+	public void init() {
+		signingKey = DownloadSignature.createKey(key);
+	}
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
-		String key = request.getParameter("access_key");
-		if (key == null || !key.equals(this.key)) {
+		String key = getAccessKey(request);
+		if ((key == null || !key.equals(this.key)) && !isSignedDownload(request)) {
 			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
 			return;
 		}
 		filterChain.doFilter(request, response);
 	}
 
-}
\ No newline at end of file
+	private String getAccessKey(HttpServletRequest request) {
+		String query = request.getQueryString();
+		if (query == null) {
+			return null;
+		}
+		for (String param : query.split("&")) {
+			int index = param.indexOf('=');
+			if (index > 0 && param.substring(0, index).equals("access_key")) {
+				return URLDecoder.decode(param.substring(index + 1), StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	private boolean isSignedDownload(HttpServletRequest request) {
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return false;
+		}
+		String fileName = request.getParameter("fileName");
+		String size = request.getParameter("size");
+		String expires = request.getParameter("expires");
+		String signature = request.getParameter("signature");
+		if (fileName == null || expires == null || signature == null) {
+			return false;
+		}
+		try {
+			String path = request.getRequestURI().substring(request.getContextPath().length());
+			return DownloadSignature.verify(signingKey, path, fileName, size == null ? null : Integer.valueOf(size),
+					Long.parseLong(expires), signature);
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package danix.app.files_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorsConfig {
+
+    @Value("${files_deletion_concurrency}")
+    private int filesDeletionConcurrency;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService filesDeletionExecutor() {
+        return Executors.newFixedThreadPool(filesDeletionConcurrency,
+                Thread.ofVirtual().name("files-deletion-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageProcessingExecutor(ImageProcessingProperties properties) {
+        return new ThreadPoolExecutor(properties.getConcurrency(), properties.getConcurrency(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("image-processing-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService thumbnailsExecutor(ImageProcessingProperties properties) {
+        return new ThreadPoolExecutor(properties.getThumbnailConcurrency(), properties.getThumbnailConcurrency(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getThumbnailQueueCapacity()),
+                Thread.ofPlatform().name("thumbnails-", 0).factory());
+    }
+
+}
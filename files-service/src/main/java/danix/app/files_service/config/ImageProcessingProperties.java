@@ -0,0 +1,29 @@
+package danix.app.files_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties("image-processing")
+@Data
+public class ImageProcessingProperties {
+
+    private boolean enabled;
+
+    private int maxDimension = 2048;
+
+    private float quality = 0.82f;
+
+    private String format = "jpeg";
+
+    private int concurrency = 2;
+
+    private int queueCapacity = 64;
+
+    private long maxPixels = 40_000_000;
+
+    private int thumbnailConcurrency = 2;
+
+    private int thumbnailQueueCapacity = 64;
+}
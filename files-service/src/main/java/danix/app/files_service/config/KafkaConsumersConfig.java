@@ -2,16 +2,29 @@ package danix.app.files_service.config;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +37,14 @@ public class KafkaConsumersConfig {
 	@Value("${spring.kafka.consumer.group-id}")
 	private String groupId;
 
+	@Value("${kafka_max_poll_records}")
+	private int maxPollRecords;
+
 	private ConsumerFactory<String, List<String>> consumerFactory() {
 		Map<String, Object> props = new HashMap<>();
 		props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
 		props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 		props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
 		props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, "false");
 		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
@@ -35,7 +52,7 @@ public class KafkaConsumersConfig {
 		return new DefaultKafkaConsumerFactory<>(
 				props,
 				new StringDeserializer(),
-				new JsonDeserializer<>(new TypeReference<>() {})
+				new ErrorHandlingDeserializer<>(new JsonDeserializer<>(new TypeReference<>() {}))
 		);
 	}
 
@@ -43,7 +60,28 @@ public class KafkaConsumersConfig {
 	public ConcurrentKafkaListenerContainerFactory<String, List<String>> listFactory() {
 		var factory = new ConcurrentKafkaListenerContainerFactory<String, List<String>>();
 		factory.setConsumerFactory(consumerFactory());
+		factory.setBatchListener(true);
+		factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer(),
+				new FixedBackOff(1000, 2)));
 		return factory;
 	}
 
+	private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+		Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+		templates.put(byte[].class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+				getProducerProps(ByteArraySerializer.class))));
+		templates.put(Object.class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+				getProducerProps(JsonSerializer.class))));
+		return new DeadLetterPublishingRecoverer(templates,
+				(record, e) -> new TopicPartition(record.topic() + "-dlt", -1));
+	}
+
+	private Map<String, Object> getProducerProps(Class<?> valueSerializer) {
+		Map<String, Object> props = new HashMap<>();
+		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+		return props;
+	}
+
 }
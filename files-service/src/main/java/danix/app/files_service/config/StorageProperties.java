@@ -0,0 +1,19 @@
+package danix.app.files_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties("storage")
+@Data
+public class StorageProperties {
+
+    private int shardLevels = 2;
+
+    private boolean deduplicate;
+
+    private List<Integer> thumbnailSizes = List.of(160, 480);
+}
@@ -0,0 +1,70 @@
+package danix.app.files_service.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class UploadsLimitFilter extends OncePerRequestFilter {
+
+	@Value("${max_concurrent_uploads}")
+	private int maxConcurrentUploads;
+
+	@Value("${upload_permit_timeout}")
+	private Duration permitTimeout;
+
+	private Semaphore permits;
+
+	@PostConstruct
+	public void init() {
+		permits = new Semaphore(maxConcurrentUploads, true);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String contentType = request.getContentType();
+		return !HttpMethod.POST.matches(request.getMethod()) || contentType == null ||
+				!contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(permitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, permitTimeout.toSeconds())));
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+}
@@ -5,6 +5,7 @@ import danix.app.files_service.util.ErrorData;
 import danix.app.files_service.dto.ErrorResponseDTO;
 import danix.app.files_service.util.FileException;
 import danix.app.files_service.util.FileType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,8 +27,9 @@ public class FilesController {
 	}
 
 	@GetMapping("/user/avatar")
-	public ResponseEntity<?> downloadUserAvatar(@RequestParam String fileName) {
-		return filesService.download(FileType.USER_AVATAR, fileName);
+	public ResponseEntity<?> downloadUserAvatar(@RequestParam String fileName,
+			@RequestParam(required = false) Integer size, HttpServletRequest request) {
+		return filesService.download(FileType.USER_AVATAR, fileName, size, request);
 	}
 
 	@DeleteMapping("/user/avatar")
@@ -44,8 +46,9 @@ public class FilesController {
 	}
 
 	@GetMapping("/announcement/image")
-	public ResponseEntity<?> downloadAnnouncementImage(@RequestParam String fileName) {
-		return filesService.download(FileType.ANNOUNCEMENT_IMAGE, fileName);
+	public ResponseEntity<?> downloadAnnouncementImage(@RequestParam String fileName,
+			@RequestParam(required = false) Integer size, HttpServletRequest request) {
+		return filesService.download(FileType.ANNOUNCEMENT_IMAGE, fileName, size, request);
 	}
 
 	@DeleteMapping("/announcement/image")
@@ -55,8 +58,9 @@ public class FilesController {
 	}
 
 	@GetMapping("/chat/image")
-	public ResponseEntity<?> downloadMessageImage(@RequestParam String fileName) {
-		return filesService.download(FileType.CHAT_IMAGE, fileName);
+	public ResponseEntity<?> downloadMessageImage(@RequestParam String fileName,
+			@RequestParam(required = false) Integer size, HttpServletRequest request) {
+		return filesService.download(FileType.CHAT_IMAGE, fileName, size, request);
 	}
 
 	@PostMapping("/chat/image")
@@ -80,8 +84,8 @@ public class FilesController {
 	}
 
 	@GetMapping("/chat/video")
-	public ResponseEntity<?> downloadChatVideo(@RequestParam String fileName) {
-		return filesService.download(FileType.CHAT_VIDEO, fileName);
+	public ResponseEntity<?> downloadChatVideo(@RequestParam String fileName, HttpServletRequest request) {
+		return filesService.download(FileType.CHAT_VIDEO, fileName, null, request);
 	}
 
 	@DeleteMapping("/chat/video")
@@ -0,0 +1,58 @@
+package danix.app.files_service.kafka_listeners;
+
+import danix.app.files_service.services.FilesService;
+import danix.app.files_service.util.FileType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchFilesDeleter {
+
+    private final FilesService filesService;
+
+    private final ExecutorService filesDeletionExecutor;
+
+    public void delete(List<List<String>> batch, Function<String, FileType> typeResolver) {
+        List<List<Future<?>>> futures = new ArrayList<>(batch.size());
+        for (List<String> files : batch) {
+            if (files == null) {
+                futures.add(null);
+                continue;
+            }
+            futures.add(files.stream()
+                    .<Future<?>>map(file -> filesDeletionExecutor.submit(() ->
+                            filesService.delete(typeResolver.apply(file), file)))
+                    .toList());
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            if (futures.get(i) == null) {
+                throw new BatchListenerFailedException("Invalid files list record", i);
+            }
+            for (Future<?> future : futures.get(i)) {
+                try {
+                    future.get();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BatchListenerFailedException("Interrupted while deleting files", e, i);
+                }
+                catch (ExecutionException e) {
+                    throw new BatchListenerFailedException("Error delete files", e.getCause(), i);
+                }
+            }
+        }
+        log.info("Deleted files of {} records", batch.size());
+    }
+
+}
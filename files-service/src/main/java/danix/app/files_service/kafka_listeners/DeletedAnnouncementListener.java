@@ -1,9 +1,7 @@
 package danix.app.files_service.kafka_listeners;
 
-import danix.app.files_service.services.FilesService;
 import danix.app.files_service.util.FileType;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -11,14 +9,12 @@ import java.util.List;
 
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class DeletedAnnouncementListener {
 
-    private final FilesService filesService;
+    private final BatchFilesDeleter batchFilesDeleter;
 
     @KafkaListener(topics = "${kafka-topics.deleted_announcement}", containerFactory = "listFactory")
-    public void deleteAnnouncementImages(List<String> images) {
-        log.info("Deleting announcement images, size: {}", images.size());
-        images.forEach(image -> filesService.delete(FileType.ANNOUNCEMENT_IMAGE, image));
+    public void deleteAnnouncementImages(List<List<String>> batch) {
+        batchFilesDeleter.delete(batch, image -> FileType.ANNOUNCEMENT_IMAGE);
     }
 }
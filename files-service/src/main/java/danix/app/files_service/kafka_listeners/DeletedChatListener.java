@@ -1,6 +1,5 @@
 package danix.app.files_service.kafka_listeners;
 
-import danix.app.files_service.services.FilesService;
 import danix.app.files_service.util.FileType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -12,18 +11,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DeletedChatListener {
 
-    private final FilesService filesService;
+    private final BatchFilesDeleter batchFilesDeleter;
 
     @KafkaListener(topics = "${kafka-topics.deleted-chat}", containerFactory = "listFactory")
-    public void deleteChatFiles(List<String> files) {
-        for (String file : files) {
-            if (file.endsWith(".jpg")) {
-                filesService.delete(FileType.CHAT_IMAGE, file);
-            }
-            else {
-               filesService.delete(FileType.CHAT_VIDEO, file);
-            }
-        }
+    public void deleteChatFiles(List<List<String>> batch) {
+        batchFilesDeleter.delete(batch, file -> file.endsWith(".jpg") ? FileType.CHAT_IMAGE : FileType.CHAT_VIDEO);
     }
 
 }
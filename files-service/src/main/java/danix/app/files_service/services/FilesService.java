@@ -1,6 +1,7 @@
 package danix.app.files_service.services;
 
 import danix.app.files_service.util.FileType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -8,7 +9,7 @@ public interface FilesService {
 
     void upload(FileType type, MultipartFile file, String fileName);
 
-    ResponseEntity<?> download(FileType type, String fileName);
+    ResponseEntity<?> download(FileType type, String fileName, Integer size, HttpServletRequest request);
 
     void delete(FileType type, String fileName);
 
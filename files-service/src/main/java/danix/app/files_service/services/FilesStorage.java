@@ -0,0 +1,22 @@
+package danix.app.files_service.services;
+
+import danix.app.files_service.util.FileType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface FilesStorage {
+
+    Path createTempFile(FileType type) throws IOException;
+
+    void store(FileType type, Path source, String fileName) throws IOException;
+
+    Path resolve(FileType type, String fileName);
+
+    void delete(FileType type, String fileName) throws IOException;
+
+    int migrate(FileType type) throws IOException;
+
+    int collectGarbage(FileType type) throws IOException;
+
+}
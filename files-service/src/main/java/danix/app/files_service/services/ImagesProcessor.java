@@ -0,0 +1,11 @@
+package danix.app.files_service.services;
+
+import danix.app.files_service.util.FileType;
+
+public interface ImagesProcessor {
+
+    void process(FileType type, String fileName);
+
+    boolean isProcessing(FileType type, String fileName);
+
+}
@@ -0,0 +1,15 @@
+package danix.app.files_service.services;
+
+import danix.app.files_service.util.FileType;
+
+import java.nio.file.Path;
+
+public interface ThumbnailsService {
+
+    Path resolveThumbnail(FileType type, String fileName, int size);
+
+    Path getThumbnail(FileType type, String fileName, int size);
+
+    void deleteThumbnails(FileType type, String fileName);
+
+}
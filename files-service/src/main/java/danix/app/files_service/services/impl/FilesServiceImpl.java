@@ -1,29 +1,43 @@
 package danix.app.files_service.services.impl;
 
-import danix.app.files_service.config.AppProperties;
 import danix.app.files_service.services.FilesService;
+import danix.app.files_service.services.FilesStorage;
+import danix.app.files_service.services.ImagesProcessor;
+import danix.app.files_service.services.ThumbnailsService;
 import danix.app.files_service.util.FileException;
 import danix.app.files_service.util.FileType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FilesServiceImpl implements FilesService {
 
-	private final AppProperties properties;
+	private final FilesStorage filesStorage;
+
+	private final ThumbnailsService thumbnailsService;
+
+	private final ImagesProcessor imagesProcessor;
+
+	private static final Pattern IMMUTABLE_NAME =
+			Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\.[A-Za-z0-9]+");
 
 	@Override
 	public void upload(FileType type, MultipartFile file, String fileName) {
@@ -41,33 +55,61 @@ public class FilesServiceImpl implements FilesService {
 				}
 			}
 		}
-		String path = getDirPath(type);
-		File newFile = new File(path, fileName);
-		if (!newFile.getParentFile().exists()) {
-			newFile.getParentFile().mkdirs();
-		}
-		try (FileOutputStream outputStream = new FileOutputStream(newFile)) {
-			outputStream.write(file.getBytes());
+		Path temp = null;
+		try {
+			temp = filesStorage.createTempFile(type);
+			file.transferTo(temp);
+			filesStorage.store(type, temp, fileName);
+			thumbnailsService.deleteThumbnails(type, fileName);
+			imagesProcessor.process(type, fileName);
 		}
 		catch (IOException e) {
 			log.error("Error upload file - {} : {}", fileName, e.getMessage(), e);
 			throw new FileException("Error upload file");
 		}
+		finally {
+			deleteTempFile(temp);
+		}
 	}
 
 	@Override
-	public ResponseEntity<?> download(FileType type, String fileName) {
-		Path path = Path.of(getDirPath(type), fileName);
-		if (!Files.exists(path)) {
+	public ResponseEntity<?> download(FileType type, String fileName, Integer size, HttpServletRequest request) {
+		Path thumbnail = size == null ? null : thumbnailsService.resolveThumbnail(type, fileName, size);
+		Path path = thumbnail != null && Files.isRegularFile(thumbnail) ? thumbnail :
+				filesStorage.resolve(type, fileName);
+		if (!Files.isRegularFile(path)) {
 			throw new FileException("File not found");
 		}
+		boolean immutable = IMMUTABLE_NAME.matcher(fileName).matches() &&
+				!imagesProcessor.isProcessing(type, fileName);
+		CacheControl cacheControl = immutable ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable() :
+				CacheControl.noCache();
 		try {
-			byte[] data = Files.readAllBytes(path);
+			long length = Files.size(path);
+			long lastModified = Files.getLastModifiedTime(path).toMillis();
+			String eTag = getETag(length, lastModified);
+			if (new ServletWebRequest(request).checkNotModified(eTag, lastModified)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+						.eTag(eTag)
+						.lastModified(lastModified)
+						.cacheControl(cacheControl)
+						.build();
+			}
+			if (thumbnail != null && !path.equals(thumbnail)) {
+				path = thumbnailsService.getThumbnail(type, fileName, size);
+				length = Files.size(path);
+				lastModified = Files.getLastModifiedTime(path).toMillis();
+				eTag = getETag(length, lastModified);
+			}
 			MediaType mediaType = type == FileType.CHAT_VIDEO
 					? MediaType.parseMediaType("video/mp4") : MediaType.IMAGE_JPEG;
 			return ResponseEntity.status(HttpStatus.OK)
-                    .contentType(mediaType)
-                    .body(data);
+					.contentType(mediaType)
+					.eTag(eTag)
+					.lastModified(lastModified)
+					.cacheControl(cacheControl)
+					.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+					.body(new FileSystemResource(path));
 		}
 		catch (IOException e) {
 			log.error("Error download file - {} : {}", fileName, e.getMessage(), e);
@@ -77,9 +119,9 @@ public class FilesServiceImpl implements FilesService {
 
 	@Override
 	public void delete(FileType type, String fileName) {
-		Path path = Path.of(getDirPath(type), fileName);
 		try {
-			Files.deleteIfExists(path);
+			filesStorage.delete(type, fileName);
+			thumbnailsService.deleteThumbnails(type, fileName);
 		}
 		catch (IOException e) {
 			log.error("Error delete file - {} : {}", fileName, e.getMessage(), e);
@@ -87,13 +129,20 @@ public class FilesServiceImpl implements FilesService {
 		}
 	}
 
-	private String getDirPath(FileType type) {
-		return switch (type) {
-			case USER_AVATAR -> properties.getUsersAvatars();
-			case CHAT_IMAGE -> properties.getChatsImages();
-			case CHAT_VIDEO -> properties.getChatsVideos();
-			case ANNOUNCEMENT_IMAGE -> properties.getAnnouncementsImages();
-		};
+	private String getETag(long length, long lastModified) {
+		return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+
+	private void deleteTempFile(Path temp) {
+		if (temp == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(temp);
+		}
+		catch (IOException e) {
+			log.warn("Error delete temp file - {} : {}", temp, e.getMessage());
+		}
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package danix.app.files_service.services.impl;
+
+import danix.app.files_service.config.ImageProcessingProperties;
+import danix.app.files_service.services.FilesStorage;
+import danix.app.files_service.services.ImagesProcessor;
+import danix.app.files_service.util.FileType;
+import danix.app.files_service.util.ImageTooLargeException;
+import danix.app.files_service.util.Images;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImagesProcessorImpl implements ImagesProcessor {
+
+	private final FilesStorage filesStorage;
+
+	private final ImageProcessingProperties properties;
+
+	private final ExecutorService imageProcessingExecutor;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Set<String> processing = ConcurrentHashMap.newKeySet();
+
+	@Override
+	public void process(FileType type, String fileName) {
+		if (!properties.isEnabled() || type == FileType.CHAT_VIDEO) {
+			return;
+		}
+		String key = getKey(type, fileName);
+		processing.add(key);
+		try {
+			imageProcessingExecutor.execute(() -> {
+				try {
+					recompress(type, fileName);
+				}
+				finally {
+					processing.remove(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			processing.remove(key);
+			log.warn("Image processing queue is full, keeping original - {}", fileName);
+			countResult(type, "rejected");
+		}
+	}
+
+	@Override
+	public boolean isProcessing(FileType type, String fileName) {
+		return processing.contains(getKey(type, fileName));
+	}
+
+	private void recompress(FileType type, String fileName) {
+		Path path = filesStorage.resolve(type, fileName);
+		Path temp = null;
+		try {
+			String version = getVersion(path);
+			long originalSize = Files.size(path);
+			BufferedImage image = Images.read(path, properties.getMaxPixels(), properties.getMaxDimension());
+			if (image == null) {
+				countResult(type, "unsupported");
+				return;
+			}
+			temp = filesStorage.createTempFile(type);
+			Images.write(Images.resize(image, properties.getMaxDimension()), temp, properties.getFormat(),
+					properties.getQuality());
+			long processedSize = Files.size(temp);
+			recordSizes(type, originalSize, Math.min(originalSize, processedSize));
+			if (processedSize >= originalSize) {
+				countResult(type, "skipped");
+				return;
+			}
+			if (!version.equals(getVersion(path))) {
+				countResult(type, "changed");
+				return;
+			}
+			filesStorage.store(type, temp, fileName);
+			countResult(type, "processed");
+		}
+		catch (NoSuchFileException e) {
+			countResult(type, "changed");
+		}
+		catch (ImageTooLargeException e) {
+			log.warn("Image is too large to process, keeping original - {} : {}", fileName, e.getMessage());
+			countResult(type, "too_large");
+		}
+		catch (IOException | RuntimeException e) {
+			log.error("Error process image - {} : {}", fileName, e.getMessage(), e);
+			countResult(type, "failed");
+		}
+		finally {
+			deleteTempFile(temp);
+		}
+	}
+
+	private String getKey(FileType type, String fileName) {
+		return type + "/" + fileName;
+	}
+
+	private String getVersion(Path path) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		return attributes.fileKey() + "-" + attributes.lastModifiedTime().toMillis();
+	}
+
+	private void recordSizes(FileType type, long originalSize, long storedSize) {
+		meterRegistry.summary("files.images.size", "type", type.name(), "stage", "original").record(originalSize);
+		meterRegistry.summary("files.images.size", "type", type.name(), "stage", "stored").record(storedSize);
+	}
+
+	private void countResult(FileType type, String result) {
+		meterRegistry.counter("files.images.processing", "type", type.name(), "result", result).increment();
+	}
+
+	private void deleteTempFile(Path temp) {
+		if (temp == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(temp);
+		}
+		catch (IOException e) {
+			log.warn("Error delete temp file - {} : {}", temp, e.getMessage());
+		}
+	}
+
+}
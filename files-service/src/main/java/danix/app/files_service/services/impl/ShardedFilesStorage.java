@@ -0,0 +1,268 @@
+package danix.app.files_service.services.impl;
+
+import danix.app.files_service.config.AppProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.services.FilesStorage;
+import danix.app.files_service.util.FileException;
+import danix.app.files_service.util.FileType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedFilesStorage implements FilesStorage {
+
+	private final AppProperties appProperties;
+
+	private final StorageProperties storageProperties;
+
+	private static final String TEMP_DIR = ".tmp";
+
+	private static final String BLOBS_DIR = ".blobs";
+
+	private static final String HASH_ATTR = "files.sha256";
+
+	private final Lock[] blobLocks = IntStream.range(0, 64)
+			.mapToObj(i -> new ReentrantLock())
+			.toArray(Lock[]::new);
+
+	@Override
+	public Path createTempFile(FileType type) throws IOException {
+		Path dir = getDirPath(type).resolve(TEMP_DIR);
+		Files.createDirectories(dir);
+		return Files.createTempFile(dir, "upload-", ".part");
+	}
+
+	@Override
+	public void store(FileType type, Path source, String fileName) throws IOException {
+		Path target = getShardedPath(type, fileName);
+		Files.createDirectories(target.getParent());
+		if (!storageProperties.isDeduplicate()) {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return;
+		}
+		String previous = Files.exists(target) ? getBlobHash(target) : null;
+		String hash = hash(source);
+		writeHash(source, hash);
+		Path blob = getBlobPath(type, hash);
+		Files.createDirectories(blob.getParent());
+		Path link = target.resolveSibling(target.getFileName() + ".link-" + UUID.randomUUID());
+		Lock lock = getBlobLock(hash);
+		lock.lock();
+		try {
+			try {
+				Files.createLink(link, blob);
+				Files.delete(source);
+			}
+			catch (NoSuchFileException e) {
+				Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				Files.createLink(link, blob);
+			}
+			Files.move(link, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			lock.unlock();
+		}
+		if (previous != null && !previous.equals(hash)) {
+			deleteOrphanBlob(getBlobPath(type, previous), previous);
+		}
+	}
+
+	@Override
+	public Path resolve(FileType type, String fileName) {
+		Path sharded = getShardedPath(type, fileName);
+		if (Files.exists(sharded)) {
+			return sharded;
+		}
+		Path flat = getDirPath(type).resolve(fileName);
+		return Files.exists(flat) ? flat : sharded;
+	}
+
+	@Override
+	public void delete(FileType type, String fileName) throws IOException {
+		Path path = resolve(type, fileName);
+		if (!Files.exists(path)) {
+			return;
+		}
+		String hash = storageProperties.isDeduplicate() ? getBlobHash(path) : null;
+		if (hash == null) {
+			Files.deleteIfExists(path);
+			return;
+		}
+		Path blob = getBlobPath(type, hash);
+		Lock lock = getBlobLock(hash);
+		lock.lock();
+		try {
+			Files.deleteIfExists(path);
+			if (Files.exists(blob) && getLinksCount(blob) == 1) {
+				Files.deleteIfExists(blob);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int migrate(FileType type) throws IOException {
+		Path dir = getDirPath(type);
+		if (!Files.isDirectory(dir)) {
+			return 0;
+		}
+		int migrated = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir,
+				path -> Files.isRegularFile(path) && !path.getFileName().toString().startsWith("."))) {
+			for (Path file : files) {
+				store(type, file, file.getFileName().toString());
+				migrated++;
+			}
+		}
+		return migrated;
+	}
+
+	@Override
+	public int collectGarbage(FileType type) throws IOException {
+		Path blobs = getDirPath(type).resolve(BLOBS_DIR);
+		if (!storageProperties.isDeduplicate() || !Files.isDirectory(blobs)) {
+			return 0;
+		}
+		List<Path> orphans;
+		try (Stream<Path> paths = Files.walk(blobs)) {
+			orphans = paths.filter(Files::isRegularFile)
+					.filter(blob -> getLinksCount(blob) == 1)
+					.toList();
+		}
+		for (Path orphan : orphans) {
+			deleteOrphanBlob(orphan, orphan.getFileName().toString());
+		}
+		return orphans.size();
+	}
+
+	private Path getShardedPath(FileType type, String fileName) {
+		if (fileName.isBlank() || fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+			throw new FileException("Invalid file name");
+		}
+		return shard(getDirPath(type), sha256(fileName.getBytes(StandardCharsets.UTF_8))).resolve(fileName);
+	}
+
+	private Path getBlobPath(FileType type, String hash) {
+		return shard(getDirPath(type).resolve(BLOBS_DIR), hash).resolve(hash);
+	}
+
+	private Path shard(Path dir, String hash) {
+		Path path = dir;
+		for (int i = 0; i < storageProperties.getShardLevels(); i++) {
+			path = path.resolve(hash.substring(i * 2, i * 2 + 2));
+		}
+		return path;
+	}
+
+	private int getLinksCount(Path path) {
+		try {
+			return (Integer) Files.getAttribute(path, "unix:nlink");
+		}
+		catch (IOException e) {
+			throw new FileException("Error read file links count");
+		}
+	}
+
+	private void deleteOrphanBlob(Path blob, String hash) throws IOException {
+		Lock lock = getBlobLock(hash);
+		lock.lock();
+		try {
+			if (Files.exists(blob) && getLinksCount(blob) == 1) {
+				Files.deleteIfExists(blob);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private Lock getBlobLock(String hash) {
+		return blobLocks[Math.floorMod(hash.hashCode(), blobLocks.length)];
+	}
+
+	private String getBlobHash(Path path) throws IOException {
+		UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+		try {
+			if (view != null && view.list().contains(HASH_ATTR)) {
+				ByteBuffer buffer = ByteBuffer.allocate(view.size(HASH_ATTR));
+				view.read(HASH_ATTR, buffer);
+				return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+			}
+		}
+		catch (UnsupportedOperationException e) {
+			log.debug("User file attributes are not supported - {}", path);
+		}
+		return getLinksCount(path) > 1 ? hash(path) : null;
+	}
+
+	private void writeHash(Path path, String hash) {
+		UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+		if (view == null) {
+			return;
+		}
+		try {
+			view.write(HASH_ATTR, StandardCharsets.UTF_8.encode(hash));
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			log.debug("Error write file hash attribute - {} : {}", path, e.getMessage());
+		}
+	}
+
+	private String hash(Path path) throws IOException {
+		MessageDigest digest = getDigest();
+		try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private String sha256(byte[] data) {
+		return HexFormat.of().formatHex(getDigest().digest(data));
+	}
+
+	private MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Path getDirPath(FileType type) {
+		return Path.of(switch (type) {
+			case USER_AVATAR -> appProperties.getUsersAvatars();
+			case CHAT_IMAGE -> appProperties.getChatsImages();
+			case CHAT_VIDEO -> appProperties.getChatsVideos();
+			case ANNOUNCEMENT_IMAGE -> appProperties.getAnnouncementsImages();
+		});
+	}
+
+}
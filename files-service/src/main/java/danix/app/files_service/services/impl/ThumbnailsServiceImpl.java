@@ -0,0 +1,151 @@
+package danix.app.files_service.services.impl;
+
+import danix.app.files_service.config.ImageProcessingProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.services.FilesStorage;
+import danix.app.files_service.services.ThumbnailsService;
+import danix.app.files_service.util.FileException;
+import danix.app.files_service.util.FileType;
+import danix.app.files_service.util.ImageTooLargeException;
+import danix.app.files_service.util.Images;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailsServiceImpl implements ThumbnailsService {
+
+	private final FilesStorage filesStorage;
+
+	private final StorageProperties storageProperties;
+
+	private final ImageProcessingProperties imageProcessingProperties;
+
+	private final ExecutorService thumbnailsExecutor;
+
+	private final Map<String, CompletableFuture<Path>> inProgress = new ConcurrentHashMap<>();
+
+	private static final float THUMBNAIL_QUALITY = 0.8f;
+
+	@Override
+	public Path resolveThumbnail(FileType type, String fileName, int size) {
+		if (type == FileType.CHAT_VIDEO || !storageProperties.getThumbnailSizes().contains(size)) {
+			throw new FileException("Invalid thumbnail size");
+		}
+		return filesStorage.resolve(type, getThumbnailName(fileName, size));
+	}
+
+	@Override
+	public Path getThumbnail(FileType type, String fileName, int size) {
+		Path thumbnail = resolveThumbnail(type, fileName, size);
+		String thumbnailName = getThumbnailName(fileName, size);
+		if (Files.isRegularFile(thumbnail)) {
+			return thumbnail;
+		}
+		String key = type + "/" + thumbnailName;
+		CompletableFuture<Path> created = new CompletableFuture<>();
+		CompletableFuture<Path> existing = inProgress.putIfAbsent(key, created);
+		if (existing != null) {
+			return join(existing);
+		}
+		try {
+			thumbnailsExecutor.execute(() -> {
+				try {
+					created.complete(generate(type, fileName, thumbnailName, size));
+				}
+				catch (RuntimeException e) {
+					created.completeExceptionally(e);
+				}
+				finally {
+					inProgress.remove(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			inProgress.remove(key);
+			log.warn("Thumbnails queue is full - {}", thumbnailName);
+			FileException exception = new FileException("Too many thumbnail requests");
+			created.completeExceptionally(exception);
+			throw exception;
+		}
+		return join(created);
+	}
+
+	@Override
+	public void deleteThumbnails(FileType type, String fileName) {
+		if (type == FileType.CHAT_VIDEO) {
+			return;
+		}
+		for (int size : storageProperties.getThumbnailSizes()) {
+			try {
+				filesStorage.delete(type, getThumbnailName(fileName, size));
+			}
+			catch (IOException e) {
+				log.error("Error delete thumbnail - {} : {}", fileName, e.getMessage(), e);
+			}
+		}
+	}
+
+	private Path generate(FileType type, String fileName, String thumbnailName, int size) {
+		Path original = filesStorage.resolve(type, fileName);
+		if (!Files.isRegularFile(original)) {
+			throw new FileException("File not found");
+		}
+		Path temp = null;
+		try {
+			BufferedImage source = Images.read(original, imageProcessingProperties.getMaxPixels(), size);
+			if (source == null) {
+				return original;
+			}
+			temp = filesStorage.createTempFile(type);
+			Images.writeJpeg(Images.resize(source, size), temp, THUMBNAIL_QUALITY);
+			filesStorage.store(type, temp, thumbnailName);
+			return filesStorage.resolve(type, thumbnailName);
+		}
+		catch (ImageTooLargeException e) {
+			log.warn("Image is too large for thumbnail - {} : {}", fileName, e.getMessage());
+			throw new FileException("Image is too large");
+		}
+		catch (IOException e) {
+			log.error("Error create thumbnail - {} : {}", thumbnailName, e.getMessage(), e);
+			throw new FileException("Error create thumbnail");
+		}
+		finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				}
+				catch (IOException e) {
+					log.warn("Error delete temp file - {} : {}", temp, e.getMessage());
+				}
+			}
+		}
+	}
+
+	private Path join(CompletableFuture<Path> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+	}
+
+	private String getThumbnailName(String fileName, int size) {
+		return fileName + "@" + size + ".jpg";
+	}
+
+}
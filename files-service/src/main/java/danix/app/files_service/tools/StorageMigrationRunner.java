@@ -0,0 +1,39 @@
+package danix.app.files_service.tools;
+
+import danix.app.files_service.services.FilesStorage;
+import danix.app.files_service.util.FileType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "storage.migrate", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class StorageMigrationRunner implements ApplicationRunner {
+
+    private final FilesStorage filesStorage;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("storage-migration").start(this::migrate);
+    }
+
+    private void migrate() {
+        for (FileType type : FileType.values()) {
+            try {
+                log.info("Start migrating {} files to sharded storage...", type);
+                int migrated = filesStorage.migrate(type);
+                int collected = filesStorage.collectGarbage(type);
+                log.info("Migrated {} {} files, removed {} orphaned blobs", migrated, type, collected);
+            }
+            catch (Exception e) {
+                log.error("Error migrating {} files: {}", type, e.getMessage(), e);
+            }
+        }
+    }
+
+}
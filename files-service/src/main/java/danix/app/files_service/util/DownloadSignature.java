@@ -0,0 +1,56 @@
+package danix.app.files_service.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signed files-service download URL format, shared by the services that sign URLs and by files-service,
+ * which verifies them. Services are built independently, so this class is kept identical in each of them.
+ */
+public final class DownloadSignature {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private DownloadSignature() {
+    }
+
+    public static SecretKeySpec createKey(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public static String sign(SecretKeySpec key, String path, String fileName, Integer size, long expires) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(key, path, fileName, size, expires));
+    }
+
+    public static boolean verify(SecretKeySpec key, String path, String fileName, Integer size, long expires,
+                                 String signature) {
+        if (expires < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(hmac(key, path, fileName, size, expires),
+                    Base64.getUrlDecoder().decode(signature));
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String path, String fileName, Integer size, long expires) {
+        String data = path + "\n" + fileName + "\n" + (size == null ? "" : size) + "\n" + expires;
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
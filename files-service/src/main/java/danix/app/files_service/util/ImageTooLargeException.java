@@ -0,0 +1,11 @@
+package danix.app.files_service.util;
+
+import java.io.IOException;
+
+public class ImageTooLargeException extends IOException {
+
+	public ImageTooLargeException(int width, int height) {
+		super("Image is too large - " + width + "x" + height);
+	}
+
+}
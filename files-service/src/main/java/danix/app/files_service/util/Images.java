@@ -0,0 +1,177 @@
+package danix.app.files_service.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.w3c.dom.NodeList;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+public final class Images {
+
+	private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+	private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+	private Images() {
+	}
+
+	public static BufferedImage read(Path path, long maxPixels, int targetDimension) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, false);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > maxPixels) {
+					throw new ImageTooLargeException(width, height);
+				}
+				int orientation = getOrientation(reader.getImageMetadata(0));
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = Math.max(1, Math.max(width, height) / (targetDimension * 2));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				BufferedImage image = reader.read(0, param);
+				return switch (orientation) {
+					case 1 -> image;
+					case 3 -> rotate(image, 2);
+					case 6 -> rotate(image, 1);
+					case 8 -> rotate(image, 3);
+					default -> null;
+				};
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	public static BufferedImage resize(BufferedImage source, int maxDimension) {
+		double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+		int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+		int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+		BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = createGraphics(target);
+		try {
+			graphics.drawImage(source, 0, 0, width, height, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return target;
+	}
+
+	public static void writeJpeg(BufferedImage image, Path path, float quality) throws IOException {
+		write(image, path, "jpeg", quality);
+	}
+
+	public static void write(BufferedImage image, Path path, String format, float quality) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+		if (!writers.hasNext()) {
+			throw new IOException("Unsupported image format " + format);
+		}
+		ImageWriter writer = writers.next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		if (param.canWriteCompressed()) {
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			if (param.getCompressionType() == null) {
+				param.setCompressionType(param.getCompressionTypes()[0]);
+			}
+			param.setCompressionQuality(quality);
+		}
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(path.toFile())) {
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally {
+			writer.dispose();
+		}
+	}
+
+	private static BufferedImage rotate(BufferedImage source, int quadrants) {
+		int width = quadrants % 2 == 0 ? source.getWidth() : source.getHeight();
+		int height = quadrants % 2 == 0 ? source.getHeight() : source.getWidth();
+		BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = createGraphics(target);
+		try {
+			AffineTransform transform = new AffineTransform();
+			transform.translate(width / 2.0, height / 2.0);
+			transform.quadrantRotate(quadrants);
+			transform.translate(-source.getWidth() / 2.0, -source.getHeight() / 2.0);
+			graphics.drawImage(source, transform, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return target;
+	}
+
+	private static Graphics2D createGraphics(BufferedImage target) {
+		Graphics2D graphics = target.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		graphics.setColor(Color.WHITE);
+		graphics.fillRect(0, 0, target.getWidth(), target.getHeight());
+		return graphics;
+	}
+
+	private static int getOrientation(IIOMetadata metadata) {
+		if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+			return 1;
+		}
+		IIOMetadataNode tree = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT);
+		NodeList markers = tree.getElementsByTagName("unknown");
+		for (int i = 0; i < markers.getLength(); i++) {
+			IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+			if ("225".equals(marker.getAttribute("MarkerTag")) && marker.getUserObject() instanceof byte[] data) {
+				int orientation = getExifOrientation(data);
+				if (orientation > 0) {
+					return orientation;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private static int getExifOrientation(byte[] data) {
+		if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+			return 0;
+		}
+		ByteBuffer tiff = ByteBuffer.wrap(data, 6, data.length - 6).slice();
+		tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+		int ifd = tiff.getInt(4);
+		if (ifd < 8 || ifd + 2 > tiff.limit()) {
+			return 0;
+		}
+		int entries = tiff.getShort(ifd) & 0xFFFF;
+		for (int i = 0; i < entries; i++) {
+			int entry = ifd + 2 + i * 12;
+			if (entry + 12 > tiff.limit()) {
+				return 0;
+			}
+			if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+				return tiff.getShort(entry + 8) & 0xFFFF;
+			}
+		}
+		return 0;
+	}
+
+}
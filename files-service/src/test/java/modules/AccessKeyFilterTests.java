@@ -0,0 +1,140 @@
+package modules;
+
+import danix.app.files_service.config.AccessKeyFilter;
+import danix.app.files_service.util.DownloadSignature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AccessKeyFilterTests {
+
+    private AccessKeyFilter accessKeyFilter;
+
+    private final SecretKeySpec key = DownloadSignature.createKey("test");
+
+    private static final String PATH = "/announcement/image";
+
+    @BeforeEach
+    public void setUp() {
+        accessKeyFilter = new AccessKeyFilter();
+        ReflectionTestUtils.setField(accessKeyFilter, "key", "test");
+        accessKeyFilter.init();
+    }
+
+    @Test
+    public void acceptsAccessKeyFromQuery() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", PATH);
+        request.setQueryString("access_key=test&fileName=image.jpg");
+
+        assertPassed(request);
+    }
+
+    @Test
+    public void rejectsWrongAccessKey() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", PATH);
+        request.setQueryString("access_key=wrong&fileName=image.jpg");
+
+        assertRejected(request);
+    }
+
+    @Test
+    public void acceptsValidSignedDownload() throws Exception {
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        assertPassed(signed("GET", PATH, "image.jpg", 160, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", 160, expires)));
+        assertPassed(signed("HEAD", PATH, "image.jpg", null, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", null, expires)));
+    }
+
+    @Test
+    public void rejectsExpiredSignedDownload() throws Exception {
+        long expires = Instant.now().getEpochSecond() - 1;
+
+        assertRejected(signed("GET", PATH, "image.jpg", null, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", null, expires)));
+    }
+
+    @Test
+    public void rejectsTamperedSignedDownload() throws Exception {
+        long expires = Instant.now().getEpochSecond() + 60;
+        String signature = DownloadSignature.sign(key, PATH, "image.jpg", null, expires);
+
+        assertRejected(signed("GET", PATH, "other.jpg", null, expires, signature));
+        assertRejected(signed("GET", PATH, "image.jpg", null, expires + 60, signature));
+        assertRejected(signed("GET", PATH, "image.jpg", null, expires, (signature.startsWith("A") ? "B" : "A") + signature.substring(1)));
+        assertRejected(signed("GET", PATH, "image.jpg", null, expires, "not base64!"));
+        assertRejected(signed("GET", PATH, "image.jpg", null, expires,
+                DownloadSignature.sign(DownloadSignature.createKey("other"), PATH, "image.jpg", null, expires)));
+    }
+
+    @Test
+    public void rejectsSignedDownloadWithChangedSize() throws Exception {
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        assertRejected(signed("GET", PATH, "image.jpg", 480, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", 160, expires)));
+        assertRejected(signed("GET", PATH, "image.jpg", 480, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", null, expires)));
+    }
+
+    @Test
+    public void rejectsSignedDownloadForWrongPath() throws Exception {
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        assertRejected(signed("GET", "/user/avatar", "image.jpg", null, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", null, expires)));
+    }
+
+    @Test
+    public void rejectsSignedUploadOrDelete() throws Exception {
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        assertRejected(signed("DELETE", PATH, "image.jpg", null, expires,
+                DownloadSignature.sign(key, PATH, "image.jpg", null, expires)));
+    }
+
+    private MockHttpServletRequest signed(String method, String path, String fileName, Integer size, long expires,
+                                          String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addParameter("fileName", fileName);
+        if (size != null) {
+            request.addParameter("size", String.valueOf(size));
+        }
+        request.addParameter("expires", String.valueOf(expires));
+        request.addParameter("signature", signature);
+        return request;
+    }
+
+    private void assertPassed(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        accessKeyFilter.doFilter(request, response, chain);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    private void assertRejected(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        accessKeyFilter.doFilter(request, response, chain);
+
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+}
@@ -0,0 +1,89 @@
+package modules;
+
+import danix.app.files_service.kafka_listeners.BatchFilesDeleter;
+import danix.app.files_service.kafka_listeners.DeletedChatListener;
+import danix.app.files_service.services.FilesService;
+import danix.app.files_service.util.FileException;
+import danix.app.files_service.util.FileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchFilesDeleterTests {
+
+    @Mock
+    private FilesService filesService;
+
+    private ExecutorService executor;
+
+    private BatchFilesDeleter batchFilesDeleter;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        batchFilesDeleter = new BatchFilesDeleter(filesService, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void deleteRemovesFilesOfAllRecords() {
+        batchFilesDeleter.delete(List.of(List.of("1.jpg", "2.jpg"), List.of(), List.of("3.jpg")),
+                file -> FileType.ANNOUNCEMENT_IMAGE);
+
+        verify(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "1.jpg");
+        verify(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "2.jpg");
+        verify(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "3.jpg");
+    }
+
+    @Test
+    public void deleteReportsIndexOfFailedRecord() {
+        FileException error = new FileException("Error delete file");
+        doThrow(error).when(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "2.jpg");
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class, () ->
+                batchFilesDeleter.delete(List.of(List.of("1.jpg"), List.of("2.jpg"), List.of("3.jpg")),
+                        file -> FileType.ANNOUNCEMENT_IMAGE));
+
+        assertEquals(1, e.getIndex());
+        assertInstanceOf(FileException.class, e.getCause());
+        verify(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "1.jpg");
+    }
+
+    @Test
+    public void deleteReportsIndexOfUndeserializableRecord() {
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class, () ->
+                batchFilesDeleter.delete(Arrays.asList(List.of("1.jpg"), null), file -> FileType.ANNOUNCEMENT_IMAGE));
+
+        assertEquals(1, e.getIndex());
+        verify(filesService).delete(FileType.ANNOUNCEMENT_IMAGE, "1.jpg");
+    }
+
+    @Test
+    public void chatListenerResolvesFileTypeByExtension() {
+        new DeletedChatListener(batchFilesDeleter).deleteChatFiles(List.of(List.of("image.jpg", "video.mp4")));
+
+        verify(filesService).delete(FileType.CHAT_IMAGE, "image.jpg");
+        verify(filesService).delete(FileType.CHAT_VIDEO, "video.mp4");
+    }
+
+}
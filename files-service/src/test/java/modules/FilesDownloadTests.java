@@ -0,0 +1,200 @@
+package modules;
+
+import danix.app.files_service.config.AppProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.controllers.FilesController;
+import danix.app.files_service.services.ImagesProcessor;
+import danix.app.files_service.services.ThumbnailsService;
+import danix.app.files_service.services.impl.FilesServiceImpl;
+import danix.app.files_service.services.impl.ShardedFilesStorage;
+import danix.app.files_service.util.FileType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class FilesDownloadTests {
+
+    @TempDir
+    private Path root;
+
+    @Mock
+    private ThumbnailsService thumbnailsService;
+
+    @Mock
+    private ImagesProcessor imagesProcessor;
+
+    private ShardedFilesStorage filesStorage;
+
+    private MockMvc mockMvc;
+
+    private static final String CONTENT = "0123456789";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setChatsVideos(root.resolve("videos").toString());
+        appProperties.setAnnouncementsImages(root.resolve("images").toString());
+        filesStorage = new ShardedFilesStorage(appProperties, new StorageProperties());
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new FilesController(new FilesServiceImpl(filesStorage, thumbnailsService, imagesProcessor))).build();
+        store("video.mp4", CONTENT);
+    }
+
+    @Test
+    public void downloadReturnsWholeFileWithValidators() throws Exception {
+        mockMvc.perform(get("/chat/video").param("fileName", "video.mp4"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    public void downloadReturnsRequestedRange() throws Exception {
+        mockMvc.perform(get("/chat/video").param("fileName", "video.mp4").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void downloadReturnsNotModifiedForMatchingETag() throws Exception {
+        String eTag = mockMvc.perform(get("/chat/video").param("fileName", "video.mp4"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/chat/video").param("fileName", "video.mp4").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void downloadReturnsFullFileWhenETagChanged() throws Exception {
+        mockMvc.perform(get("/chat/video").param("fileName", "video.mp4")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    public void uuidNamedFileIsCachedAsImmutable() throws Exception {
+        String fileName = UUID.randomUUID() + ".mp4";
+        store(fileName, CONTENT);
+
+        mockMvc.perform(get("/chat/video").param("fileName", fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    public void uuidNamedFileIsNotImmutableWhileProcessing() throws Exception {
+        String fileName = UUID.randomUUID() + ".mp4";
+        store(fileName, CONTENT);
+        when(imagesProcessor.isProcessing(FileType.CHAT_VIDEO, fileName)).thenReturn(true);
+
+        mockMvc.perform(get("/chat/video").param("fileName", fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    public void conditionalDownloadOfDeletedFileIsNotAnsweredWithNotModified() throws Exception {
+        String fileName = UUID.randomUUID() + ".mp4";
+        store(fileName, CONTENT);
+        String eTag = mockMvc.perform(get("/chat/video").param("fileName", fileName))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        filesStorage.delete(FileType.CHAT_VIDEO, fileName);
+
+        mockMvc.perform(get("/chat/video").param("fileName", fileName).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void conditionalDownloadOfReplacedFileReturnsNewContent() throws Exception {
+        String fileName = UUID.randomUUID() + ".mp4";
+        store(fileName, CONTENT);
+        String eTag = mockMvc.perform(get("/chat/video").param("fileName", fileName))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        store(fileName, "processed");
+
+        mockMvc.perform(get("/chat/video").param("fileName", fileName).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().string("processed"));
+    }
+
+    @Test
+    public void conditionalThumbnailDownloadIsAnsweredBeforeGeneration() throws Exception {
+        store(FileType.ANNOUNCEMENT_IMAGE, "image.png", CONTENT);
+        store(FileType.ANNOUNCEMENT_IMAGE, "image.png@160.jpg", "thumbnail");
+        when(thumbnailsService.resolveThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160))
+                .thenReturn(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png@160.jpg"));
+        String eTag = mockMvc.perform(get("/announcement/image").param("fileName", "image.png").param("size", "160"))
+                .andExpect(content().string("thumbnail"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/announcement/image").param("fileName", "image.png").param("size", "160")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(thumbnailsService, never()).getThumbnail(any(), any(), anyInt());
+    }
+
+    @Test
+    public void missingThumbnailIsGeneratedOnlyForResponseWithBody() throws Exception {
+        store(FileType.ANNOUNCEMENT_IMAGE, "image.png", CONTENT);
+        Path original = filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png");
+        when(thumbnailsService.resolveThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160))
+                .thenReturn(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png@160.jpg"));
+        when(thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160)).thenReturn(original);
+        String eTag = mockMvc.perform(get("/announcement/image").param("fileName", "image.png").param("size", "160"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/announcement/image").param("fileName", "image.png").param("size", "160")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(thumbnailsService, times(1)).getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160);
+    }
+
+    @Test
+    public void downloadOfMissingFileFails() throws Exception {
+        mockMvc.perform(get("/chat/video").param("fileName", "missing.mp4"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void store(String fileName, String content) throws Exception {
+        store(FileType.CHAT_VIDEO, fileName, content);
+    }
+
+    private void store(FileType type, String fileName, String content) throws Exception {
+        Path temp = filesStorage.createTempFile(type);
+        Files.writeString(temp, content);
+        filesStorage.store(type, temp, fileName);
+    }
+
+}
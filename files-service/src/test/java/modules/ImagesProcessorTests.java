@@ -0,0 +1,200 @@
+package modules;
+
+import danix.app.files_service.config.AppProperties;
+import danix.app.files_service.config.ImageProcessingProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.services.impl.ImagesProcessorImpl;
+import danix.app.files_service.services.impl.ShardedFilesStorage;
+import danix.app.files_service.util.FileType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImagesProcessorTests {
+
+    @TempDir
+    private Path root;
+
+    private StorageProperties storageProperties;
+
+    private ImageProcessingProperties properties;
+
+    private ShardedFilesStorage filesStorage;
+
+    private ExecutorService executor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImagesProcessorImpl imagesProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setAnnouncementsImages(root.toString());
+        storageProperties = new StorageProperties();
+        properties = new ImageProcessingProperties();
+        properties.setEnabled(true);
+        properties.setMaxDimension(200);
+        filesStorage = new ShardedFilesStorage(appProperties, storageProperties);
+        executor = Executors.newSingleThreadExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        imagesProcessor = new ImagesProcessorImpl(filesStorage, properties, executor, meterRegistry);
+    }
+
+    @Test
+    public void processRecompressesLargeImage() throws Exception {
+        store("image.png", 800, 600);
+
+        process("image.png");
+
+        Path path = filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png");
+        assertEquals("jpeg", getFormat(path));
+        BufferedImage image = ImageIO.read(path.toFile());
+        assertEquals(200, image.getWidth());
+        assertEquals(150, image.getHeight());
+        assertEquals(1, getCount("processed"));
+    }
+
+    @Test
+    public void processWritesConfiguredFormat() throws Exception {
+        properties.setFormat("png");
+        store("image.png", 800, 600);
+
+        process("image.png");
+
+        assertEquals("png", getFormat(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+        assertEquals(1, getCount("processed"));
+    }
+
+    @Test
+    public void processReleasesOriginalBlobWhenDeduplicated() throws Exception {
+        storageProperties.setDeduplicate(true);
+        store("image.png", 800, 600);
+
+        process("image.png");
+
+        List<Path> blobs = getBlobs();
+        assertEquals(1, blobs.size());
+        assertArrayEquals(Files.readAllBytes(blobs.getFirst()),
+                Files.readAllBytes(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+    }
+
+    @Test
+    public void processKeepsImageThatIsAlreadySmall() throws Exception {
+        store("image.png", 1, 1);
+        byte[] original = Files.readAllBytes(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png"));
+
+        process("image.png");
+
+        assertArrayEquals(original, Files.readAllBytes(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+        assertEquals(1, getCount("skipped"));
+    }
+
+    @Test
+    public void processKeepsImageAbovePixelLimit() throws Exception {
+        properties.setMaxPixels(800 * 600 - 1);
+        store("image.png", 800, 600);
+
+        process("image.png");
+
+        assertEquals("png", getFormat(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+        assertEquals(1, getCount("too_large"));
+    }
+
+    @Test
+    public void processIgnoresVideosAndDisabledProcessing() throws Exception {
+        properties.setEnabled(false);
+        store("image.png", 800, 600);
+
+        process("image.png");
+        imagesProcessor.process(FileType.CHAT_VIDEO, "video.mp4");
+
+        assertEquals("png", getFormat(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void imageIsReportedAsProcessingUntilRecompressed() throws Exception {
+        store("image.png", 800, 600);
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                latch.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        imagesProcessor.process(FileType.ANNOUNCEMENT_IMAGE, "image.png");
+
+        assertTrue(imagesProcessor.isProcessing(FileType.ANNOUNCEMENT_IMAGE, "image.png"));
+        assertFalse(imagesProcessor.isProcessing(FileType.USER_AVATAR, "image.png"));
+
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertFalse(imagesProcessor.isProcessing(FileType.ANNOUNCEMENT_IMAGE, "image.png"));
+    }
+
+    private void process(String fileName) throws InterruptedException {
+        imagesProcessor.process(FileType.ANNOUNCEMENT_IMAGE, fileName);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private void store(String fileName, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        Path temp = filesStorage.createTempFile(FileType.ANNOUNCEMENT_IMAGE);
+        ImageIO.write(image, "png", temp.toFile());
+        filesStorage.store(FileType.ANNOUNCEMENT_IMAGE, temp, fileName);
+    }
+
+    private String getFormat(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            return readers.next().getFormatName().toLowerCase();
+        }
+    }
+
+    private double getCount(String result) {
+        return meterRegistry.counter("files.images.processing", "type", FileType.ANNOUNCEMENT_IMAGE.name(),
+                "result", result).count();
+    }
+
+    private List<Path> getBlobs() throws IOException {
+        try (Stream<Path> paths = Files.walk(root.resolve(".blobs"))) {
+            return paths.filter(Files::isRegularFile).toList();
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package modules;
+
+import danix.app.files_service.config.AppProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.services.impl.ShardedFilesStorage;
+import danix.app.files_service.util.FileException;
+import danix.app.files_service.util.FileType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedFilesStorageTests {
+
+    @TempDir
+    private Path root;
+
+    private StorageProperties storageProperties;
+
+    private ShardedFilesStorage filesStorage;
+
+    @BeforeEach
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setAnnouncementsImages(root.toString());
+        storageProperties = new StorageProperties();
+        filesStorage = new ShardedFilesStorage(appProperties, storageProperties);
+    }
+
+    @Test
+    public void storePutsFileIntoShardedDirectory() throws IOException {
+        store("image.jpg", "content");
+
+        Path path = filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.jpg");
+        assertEquals(3, root.relativize(path).getNameCount());
+        assertEquals("content", Files.readString(path));
+        assertFalse(Files.exists(root.resolve("image.jpg")));
+    }
+
+    @Test
+    public void storeRejectsPathLikeNames() {
+        assertThrows(FileException.class, () -> store("../image.jpg", "content"));
+        assertThrows(FileException.class, () -> store(".blobs", "content"));
+    }
+
+    @Test
+    public void duplicateContentSharesOneBlob() throws IOException {
+        storageProperties.setDeduplicate(true);
+        store("first.jpg", "content");
+        store("second.jpg", "content");
+
+        assertEquals(1, getBlobs().size());
+        assertEquals(3, getLinksCount(getBlobs().getFirst()));
+
+        filesStorage.delete(FileType.ANNOUNCEMENT_IMAGE, "first.jpg");
+
+        assertEquals(2, getLinksCount(getBlobs().getFirst()));
+        assertEquals("content", Files.readString(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "second.jpg")));
+
+        filesStorage.delete(FileType.ANNOUNCEMENT_IMAGE, "second.jpg");
+
+        assertTrue(getBlobs().isEmpty());
+    }
+
+    @Test
+    public void collectGarbageRemovesOrphanBlobs() throws IOException {
+        storageProperties.setDeduplicate(true);
+        store("first.jpg", "content");
+        Files.delete(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "first.jpg"));
+
+        assertEquals(1, filesStorage.collectGarbage(FileType.ANNOUNCEMENT_IMAGE));
+        assertTrue(getBlobs().isEmpty());
+    }
+
+    @Test
+    public void migrateMovesFlatFilesIntoShards() throws IOException {
+        Files.writeString(root.resolve("legacy.jpg"), "legacy");
+
+        assertEquals("legacy", Files.readString(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "legacy.jpg")));
+        assertEquals(1, filesStorage.migrate(FileType.ANNOUNCEMENT_IMAGE));
+
+        Path path = filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "legacy.jpg");
+        assertEquals(3, root.relativize(path).getNameCount());
+        assertEquals("legacy", Files.readString(path));
+        assertFalse(Files.exists(root.resolve("legacy.jpg")));
+    }
+
+    @Test
+    public void migrateDeduplicatesFlatFiles() throws IOException {
+        storageProperties.setDeduplicate(true);
+        Files.writeString(root.resolve("first.jpg"), "legacy");
+        Files.writeString(root.resolve("second.jpg"), "legacy");
+
+        assertEquals(2, filesStorage.migrate(FileType.ANNOUNCEMENT_IMAGE));
+
+        assertEquals(1, getBlobs().size());
+        assertEquals(3, getLinksCount(getBlobs().getFirst()));
+    }
+
+    private void store(String fileName, String content) throws IOException {
+        Path temp = filesStorage.createTempFile(FileType.ANNOUNCEMENT_IMAGE);
+        Files.writeString(temp, content);
+        filesStorage.store(FileType.ANNOUNCEMENT_IMAGE, temp, fileName);
+    }
+
+    private List<Path> getBlobs() throws IOException {
+        Path blobs = root.resolve(".blobs");
+        if (!Files.isDirectory(blobs)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(blobs)) {
+            return paths.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private int getLinksCount(Path path) throws IOException {
+        return (Integer) Files.getAttribute(path, "unix:nlink");
+    }
+
+}
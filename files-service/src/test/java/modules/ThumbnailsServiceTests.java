@@ -0,0 +1,174 @@
+package modules;
+
+import danix.app.files_service.config.AppProperties;
+import danix.app.files_service.config.ImageProcessingProperties;
+import danix.app.files_service.config.StorageProperties;
+import danix.app.files_service.services.impl.ShardedFilesStorage;
+import danix.app.files_service.services.impl.ThumbnailsServiceImpl;
+import danix.app.files_service.util.FileException;
+import danix.app.files_service.util.FileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ThumbnailsServiceTests {
+
+    @TempDir
+    private Path root;
+
+    private ShardedFilesStorage filesStorage;
+
+    private ImageProcessingProperties imageProcessingProperties;
+
+    private ThreadPoolExecutor executor;
+
+    private ThumbnailsServiceImpl thumbnailsService;
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setAnnouncementsImages(root.toString());
+        StorageProperties storageProperties = new StorageProperties();
+        filesStorage = spy(new ShardedFilesStorage(appProperties, storageProperties));
+        imageProcessingProperties = new ImageProcessingProperties();
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        thumbnailsService = new ThumbnailsServiceImpl(filesStorage, storageProperties, imageProcessingProperties,
+                executor);
+        Path temp = filesStorage.createTempFile(FileType.ANNOUNCEMENT_IMAGE);
+        ImageIO.write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB), "png", temp.toFile());
+        filesStorage.store(FileType.ANNOUNCEMENT_IMAGE, temp, "image.png");
+    }
+
+    @Test
+    public void getThumbnailResizesToRequestedSize() throws IOException {
+        Path thumbnail = thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160);
+
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(160, image.getWidth());
+        assertEquals(80, image.getHeight());
+    }
+
+    @Test
+    public void getThumbnailReusesStoredThumbnail() throws IOException {
+        Path first = thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160);
+        Path second = thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160);
+
+        assertEquals(first, second);
+        verify(filesStorage, times(1)).store(eq(FileType.ANNOUNCEMENT_IMAGE), any(), eq("image.png@160.jpg"));
+    }
+
+    @Test
+    public void concurrentRequestsGenerateThumbnailOnce() throws Exception {
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            storing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(filesStorage).store(eq(FileType.ANNOUNCEMENT_IMAGE), any(), eq("image.png@160.jpg"));
+
+        CompletableFuture<Path> first = CompletableFuture.supplyAsync(() ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160));
+        assertTrue(storing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Path> second = CompletableFuture.supplyAsync(() ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        verify(filesStorage, times(1)).store(eq(FileType.ANNOUNCEMENT_IMAGE), any(), eq("image.png@160.jpg"));
+    }
+
+    @Test
+    public void getThumbnailRejectsUnknownSizeAndVideos() {
+        assertThrows(FileException.class, () ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 161));
+        assertThrows(FileException.class, () ->
+                thumbnailsService.getThumbnail(FileType.CHAT_VIDEO, "video.mp4", 160));
+    }
+
+    @Test
+    public void getThumbnailOfMissingFileFails() {
+        assertThrows(FileException.class, () ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "missing.png", 160));
+    }
+
+    @Test
+    public void getThumbnailRejectsImageAbovePixelLimit() throws IOException {
+        imageProcessingProperties.setMaxPixels(800 * 400 - 1);
+
+        FileException exception = assertThrows(FileException.class, () ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160));
+
+        assertEquals("Image is too large", exception.getMessage());
+        verify(filesStorage, never()).createTempFile(FileType.ANNOUNCEMENT_IMAGE);
+    }
+
+    @Test
+    public void getThumbnailFailsWhenGenerationQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> awaitQuietly(release));
+        Future<?> queued = executor.submit(() -> awaitQuietly(release));
+
+        assertThrows(FileException.class, () ->
+                thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160));
+
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+        assertEquals(80, ImageIO.read(thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160)
+                .toFile()).getHeight());
+    }
+
+    @Test
+    public void deleteThumbnailsRemovesAllSizes() {
+        Path small = thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 160);
+        Path large = thumbnailsService.getThumbnail(FileType.ANNOUNCEMENT_IMAGE, "image.png", 480);
+
+        thumbnailsService.deleteThumbnails(FileType.ANNOUNCEMENT_IMAGE, "image.png");
+
+        assertFalse(Files.exists(small));
+        assertFalse(Files.exists(large));
+        assertTrue(Files.exists(filesStorage.resolve(FileType.ANNOUNCEMENT_IMAGE, "image.png")));
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
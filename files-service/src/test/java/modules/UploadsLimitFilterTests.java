@@ -0,0 +1,127 @@
+package modules;
+
+import danix.app.files_service.config.AccessKeyFilter;
+import danix.app.files_service.config.UploadsLimitFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UploadsLimitFilterTests {
+
+    private UploadsLimitFilter uploadsLimitFilter;
+
+    private AccessKeyFilter accessKeyFilter;
+
+    private final AtomicBoolean bodyConsumed = new AtomicBoolean();
+
+    private final AtomicBoolean handled = new AtomicBoolean();
+
+    @BeforeEach
+    public void setUp() {
+        uploadsLimitFilter = new UploadsLimitFilter();
+        ReflectionTestUtils.setField(uploadsLimitFilter, "maxConcurrentUploads", 1);
+        ReflectionTestUtils.setField(uploadsLimitFilter, "permitTimeout", Duration.ofMillis(10));
+        uploadsLimitFilter.init();
+        accessKeyFilter = new AccessKeyFilter();
+        ReflectionTestUtils.setField(accessKeyFilter, "key", "test");
+        accessKeyFilter.init();
+    }
+
+    @Test
+    public void uploadsLimitFilterRunsBeforeAccessKeyFilter() {
+        List<Filter> filters = new ArrayList<>(List.of(accessKeyFilter, uploadsLimitFilter));
+        AnnotationAwareOrderComparator.sort(filters);
+
+        assertEquals(List.of(uploadsLimitFilter, accessKeyFilter), filters);
+    }
+
+    @Test
+    public void rejectsUploadBeforeBodyIsConsumedWhenNoPermitsLeft() throws Exception {
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(uploadsLimitFilter, "permits");
+        permits.acquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        createChain().doFilter(uploadRequest(), response);
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertFalse(bodyConsumed.get());
+        assertFalse(handled.get());
+    }
+
+    @Test
+    public void readsAccessKeyFromQueryWithoutParsingBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        createChain().doFilter(uploadRequest(), response);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertFalse(bodyConsumed.get());
+        assertTrue(handled.get());
+    }
+
+    @Test
+    public void releasesPermitAfterUpload() throws Exception {
+        createChain().doFilter(uploadRequest(), new MockHttpServletResponse());
+        handled.set(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        createChain().doFilter(uploadRequest(), response);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertTrue(handled.get());
+    }
+
+    private MockFilterChain createChain() {
+        List<Filter> filters = new ArrayList<>(List.of(accessKeyFilter, uploadsLimitFilter));
+        AnnotationAwareOrderComparator.sort(filters);
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                handled.set(true);
+            }
+        }, filters.toArray(Filter[]::new));
+    }
+
+    private MockHttpServletRequest uploadRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/announcement/image") {
+            @Override
+            public ServletInputStream getInputStream() {
+                bodyConsumed.set(true);
+                return super.getInputStream();
+            }
+
+            @Override
+            public String getParameter(String name) {
+                bodyConsumed.set(true);
+                return super.getParameter(name);
+            }
+        };
+        request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=test");
+        request.setQueryString("access_key=test");
+        request.setContent(new byte[1024]);
+        return request;
+    }
+
+}
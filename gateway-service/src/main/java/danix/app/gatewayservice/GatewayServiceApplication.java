@@ -7,6 +7,7 @@ import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.cloud.gateway.route.builder.UriSpec;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
 
 import java.util.function.Function;
 
@@ -32,6 +33,10 @@ public class GatewayServiceApplication {
                 .route("chats-service", r -> r.path("/chats/**", "/ws/**")
                         .filters(corsFilter())
                         .uri("lb://chats-service"))
+                .route("files-service", r -> r.path("/files/**")
+                        .and().method(HttpMethod.GET, HttpMethod.HEAD)
+                        .filters(filter -> corsFilter().apply(filter.stripPrefix(1)))
+                        .uri("lb://files-service"))
                 .build();
     }
 
@@ -0,0 +1,18 @@
+package danix.app.tasks_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiryShardDTO {
+    private String jobId;
+    private Integer shardId;
+    private Integer attempt;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
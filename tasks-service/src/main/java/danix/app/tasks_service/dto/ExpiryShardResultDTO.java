@@ -0,0 +1,12 @@
+package danix.app.tasks_service.dto;
+
+import lombok.Data;
+
+@Data
+public class ExpiryShardResultDTO {
+    private String jobId;
+    private Integer shardId;
+    private Integer attempt;
+    private int deleted;
+    private boolean success;
+}
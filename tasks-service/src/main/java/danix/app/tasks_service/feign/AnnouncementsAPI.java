@@ -1,13 +1,16 @@
 package danix.app.tasks_service.feign;
 
+import danix.app.tasks_service.dto.ExpiryShardDTO;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "announcements-service")
 public interface AnnouncementsAPI {
 
-    @DeleteMapping("/announcements/expired")
-    void deleteExpiredAnnouncements(@RequestParam("access_key") String accessKey);
+    @GetMapping("/announcements/expired/shards")
+    List<ExpiryShardDTO> getExpiredShards(@RequestParam("access_key") String accessKey);
 
 }
@@ -0,0 +1,54 @@
+package danix.app.tasks_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name")
+    private String jobName;
+
+    private String holder;
+
+    @Enumerated(EnumType.STRING)
+    private JobRunStatus status;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "items_count")
+    private Integer itemsCount;
+
+    @Column(name = "shards_count")
+    private Integer shardsCount;
+
+    @Column(name = "failed_shards")
+    private Integer failedShards;
+
+    private String error;
+
+    public JobRun(String jobName, String holder) {
+        this.jobName = jobName;
+        this.holder = holder;
+        this.status = JobRunStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+}
@@ -0,0 +1,7 @@
+package danix.app.tasks_service.models;
+
+public enum JobRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
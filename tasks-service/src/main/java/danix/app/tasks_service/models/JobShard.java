@@ -0,0 +1,49 @@
+package danix.app.tasks_service.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_shards")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(name = "from_time")
+    private LocalDateTime from;
+
+    @Column(name = "to_time")
+    private LocalDateTime to;
+
+    @Enumerated(EnumType.STRING)
+    private JobShardStatus status;
+
+    private int attempts;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    private int deleted;
+
+    public JobShard(Long runId, Integer shardId, LocalDateTime from, LocalDateTime to) {
+        this.runId = runId;
+        this.shardId = shardId;
+        this.from = from;
+        this.to = to;
+        this.status = JobShardStatus.PENDING;
+    }
+
+}
@@ -0,0 +1,7 @@
+package danix.app.tasks_service.models;
+
+public enum JobShardStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package danix.app.tasks_service.repositories;
+
+import danix.app.tasks_service.models.JobRun;
+import danix.app.tasks_service.models.JobRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JobRunsRepository extends JpaRepository<JobRun, Long> {
+
+    Optional<JobRun> findFirstByJobNameAndStatusOrderByStartedAtDesc(String jobName, JobRunStatus status);
+
+    boolean existsByJobNameAndStatusNotAndStartedAtAfter(String jobName, JobRunStatus status, LocalDateTime time);
+
+}
@@ -0,0 +1,14 @@
+package danix.app.tasks_service.repositories;
+
+import danix.app.tasks_service.models.JobShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobShardsRepository extends JpaRepository<JobShard, Long> {
+
+    List<JobShard> findAllByRunIdOrderByShardId(Long runId);
+
+}
@@ -0,0 +1,27 @@
+package danix.app.tasks_service.services;
+
+import danix.app.tasks_service.models.JobRun;
+import danix.app.tasks_service.models.JobRunStatus;
+import danix.app.tasks_service.models.JobShard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface JobRunsService {
+
+    JobRun start(String jobName, int shardsCount);
+
+    void finish(JobRun run, JobRunStatus status, int itemsCount, int failedShards, String error);
+
+    boolean hasFinishedSince(String jobName, LocalDateTime time);
+
+    Optional<JobRun> findRunning(String jobName);
+
+    List<JobShard> getShards(JobRun run);
+
+    List<JobShard> saveShards(List<JobShard> shards);
+
+    void saveShard(JobShard shard);
+
+}
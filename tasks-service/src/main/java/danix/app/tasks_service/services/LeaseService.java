@@ -0,0 +1,13 @@
+package danix.app.tasks_service.services;
+
+import java.time.Duration;
+
+public interface LeaseService {
+
+    boolean tryAcquire(String jobName, Duration duration);
+
+    void release(String jobName);
+
+    String getHolder();
+
+}
@@ -0,0 +1,76 @@
+package danix.app.tasks_service.services.impl;
+
+import danix.app.tasks_service.models.JobRun;
+import danix.app.tasks_service.models.JobRunStatus;
+import danix.app.tasks_service.models.JobShard;
+import danix.app.tasks_service.repositories.JobRunsRepository;
+import danix.app.tasks_service.repositories.JobShardsRepository;
+import danix.app.tasks_service.services.JobRunsService;
+import danix.app.tasks_service.services.LeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class JobRunsServiceImpl implements JobRunsService {
+
+    private final JobRunsRepository jobRunsRepository;
+
+    private final JobShardsRepository jobShardsRepository;
+
+    private final LeaseService leaseService;
+
+    @Override
+    @Transactional
+    public JobRun start(String jobName, int shardsCount) {
+        JobRun run = new JobRun(jobName, leaseService.getHolder());
+        run.setShardsCount(shardsCount);
+        return jobRunsRepository.save(run);
+    }
+
+    @Override
+    @Transactional
+    public void finish(JobRun run, JobRunStatus status, int itemsCount, int failedShards, String error) {
+        run.setStatus(status);
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis());
+        run.setItemsCount(itemsCount);
+        run.setFailedShards(failedShards);
+        run.setError(error);
+        jobRunsRepository.save(run);
+    }
+
+    @Override
+    public boolean hasFinishedSince(String jobName, LocalDateTime time) {
+        return jobRunsRepository.existsByJobNameAndStatusNotAndStartedAtAfter(jobName, JobRunStatus.RUNNING, time);
+    }
+
+    @Override
+    public Optional<JobRun> findRunning(String jobName) {
+        return jobRunsRepository.findFirstByJobNameAndStatusOrderByStartedAtDesc(jobName, JobRunStatus.RUNNING);
+    }
+
+    @Override
+    public List<JobShard> getShards(JobRun run) {
+        return jobShardsRepository.findAllByRunIdOrderByShardId(run.getId());
+    }
+
+    @Override
+    @Transactional
+    public List<JobShard> saveShards(List<JobShard> shards) {
+        return jobShardsRepository.saveAll(shards);
+    }
+
+    @Override
+    @Transactional
+    public void saveShard(JobShard shard) {
+        jobShardsRepository.save(shard);
+    }
+
+}
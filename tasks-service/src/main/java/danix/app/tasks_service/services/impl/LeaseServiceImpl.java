@@ -0,0 +1,50 @@
+package danix.app.tasks_service.services.impl;
+
+import danix.app.tasks_service.services.LeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaseServiceImpl implements LeaseService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String HOLDER = UUID.randomUUID().toString();
+
+    private static final String ACQUIRE_LEASE = "INSERT INTO job_leases (job_name, holder, lease_until) " +
+            "VALUES (?, ?, now() + make_interval(secs => ?)) " +
+            "ON CONFLICT (job_name) DO UPDATE SET holder = EXCLUDED.holder, lease_until = EXCLUDED.lease_until " +
+            "WHERE job_leases.holder = EXCLUDED.holder OR job_leases.lease_until < now()";
+
+    private static final String RELEASE_LEASE = "UPDATE job_leases SET lease_until = now() " +
+            "WHERE job_name = ? AND holder = ?";
+
+    @Override
+    public boolean tryAcquire(String jobName, Duration duration) {
+        try {
+            return jdbcTemplate.update(ACQUIRE_LEASE, jobName, HOLDER, duration.toSeconds()) > 0;
+        }
+        catch (Exception e) {
+            log.error("Error acquire lease for job {}: {}", jobName, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String jobName) {
+        jdbcTemplate.update(RELEASE_LEASE, jobName, HOLDER);
+    }
+
+    @Override
+    public String getHolder() {
+        return HOLDER;
+    }
+
+}
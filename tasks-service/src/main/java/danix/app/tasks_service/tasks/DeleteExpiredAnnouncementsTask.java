@@ -1,12 +1,29 @@
 package danix.app.tasks_service.tasks;
 
+import danix.app.tasks_service.dto.ExpiryShardDTO;
+import danix.app.tasks_service.dto.ExpiryShardResultDTO;
 import danix.app.tasks_service.feign.AnnouncementsAPI;
+import danix.app.tasks_service.models.JobRun;
+import danix.app.tasks_service.models.JobRunStatus;
+import danix.app.tasks_service.models.JobShard;
+import danix.app.tasks_service.models.JobShardStatus;
+import danix.app.tasks_service.services.JobRunsService;
+import danix.app.tasks_service.services.LeaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -14,19 +31,200 @@ public class DeleteExpiredAnnouncementsTask {
 
     private final AnnouncementsAPI announcementsAPI;
 
+    private final KafkaTemplate<String, ExpiryShardDTO> expiryShardKafkaTemplate;
+
+    private final LeaseService leaseService;
+
+    private final JobRunsService jobRunsService;
+
+    private final Map<Integer, JobShard> shards = new HashMap<>();
+
+    private JobRun run;
+
+    private String jobId;
+
+    private int deleted;
+
     @Value("${access_key}")
     private String accessKey;
 
+    @Value("${kafka-topics.expiry-shard}")
+    private String expiryShardTopic;
+
+    @Value("${expiry_shard_timeout}")
+    private Duration shardTimeout;
+
+    @Value("${expiry_shard_max_attempts}")
+    private int maxAttempts;
+
+    @Value("${job_lease_duration}")
+    private Duration leaseDuration;
+
+    @Value("${expiry_job_window}")
+    private Duration jobWindow;
+
+    private static final String JOB_NAME = "delete-expired-announcements";
+
     @Scheduled(cron = "@midnight")
-    public void run() {
+    public synchronized void run() {
+        if (run != null) {
+            log.warn("Expiry job {} is still running, skipping", jobId);
+            return;
+        }
+        if (!leaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+            log.info("Expiry job is run by another replica, skipping");
+            return;
+        }
+        Optional<JobRun> running = jobRunsService.findRunning(JOB_NAME);
+        if (running.isPresent()) {
+            resumeJob(running.get());
+            return;
+        }
+        if (jobRunsService.hasFinishedSince(JOB_NAME, LocalDateTime.now().minus(jobWindow))) {
+            log.info("Expiry job has already run in the current window, skipping");
+            leaseService.release(JOB_NAME);
+            return;
+        }
+        startJob();
+    }
+
+    @KafkaListener(topics = "${kafka-topics.expiry-shard-result}", containerFactory = "expiryShardResultFactory",
+            groupId = "#{'${spring.kafka.consumer.group-id}-' + T(java.util.UUID).randomUUID()}")
+    public synchronized void shardResultListener(ExpiryShardResultDTO result) {
+        JobShard shard = shards.get(result.getShardId());
+        if (!result.getJobId().equals(jobId) || shard == null || shard.getStatus() != JobShardStatus.PENDING ||
+                !result.getAttempt().equals(shard.getAttempts())) {
+            return;
+        }
+        if (result.isSuccess()) {
+            shard.setStatus(JobShardStatus.DONE);
+            shard.setDeleted(result.getDeleted());
+            jobRunsService.saveShard(shard);
+            deleted += result.getDeleted();
+            finishIfCompleted();
+        }
+        else {
+            retry(shard);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expiry_shards_check_interval}")
+    public synchronized void check() {
+        if (run == null) {
+            Optional<JobRun> running = jobRunsService.findRunning(JOB_NAME);
+            if (running.isPresent() && leaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+                log.warn("Expiry job lease has expired on another replica, taking over");
+                resumeJob(running.get());
+            }
+            return;
+        }
+        if (!leaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+            log.warn("Expiry job {} lease has been lost, stopping", jobId);
+            reset();
+            return;
+        }
+        LocalDateTime deadline = LocalDateTime.now().minus(shardTimeout);
+        shards.values().stream()
+                .filter(shard -> shard.getStatus() == JobShardStatus.PENDING &&
+                        shard.getDispatchedAt().isBefore(deadline))
+                .toList()
+                .forEach(this::retry);
+    }
+
+    private void startJob() {
         log.info("Start deleting expired announcements...");
         try {
-            announcementsAPI.deleteExpiredAnnouncements(accessKey);
-            log.info("Expired announcements successfully deleted.");
+            List<ExpiryShardDTO> planned = announcementsAPI.getExpiredShards(accessKey);
+            run = jobRunsService.start(JOB_NAME, planned.size());
+            jobId = String.valueOf(run.getId());
+            List<JobShard> created = jobRunsService.saveShards(planned.stream()
+                    .map(shard -> new JobShard(run.getId(), shard.getShardId(), shard.getFrom(), shard.getTo()))
+                    .toList());
+            created.forEach(shard -> shards.put(shard.getShardId(), shard));
+            created.forEach(this::dispatch);
+            log.info("Dispatched {} expiry shards of job {}", created.size(), jobId);
+            finishIfCompleted();
+        }
+        catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private void resumeJob(JobRun running) {
+        log.info("Resuming expiry job {}", running.getId());
+        try {
+            run = running;
+            jobId = String.valueOf(run.getId());
+            for (JobShard shard : jobRunsService.getShards(run)) {
+                shards.put(shard.getShardId(), shard);
+                if (shard.getStatus() == JobShardStatus.DONE) {
+                    deleted += shard.getDeleted();
+                }
+            }
+            shards.values().stream()
+                    .filter(shard -> shard.getStatus() == JobShardStatus.PENDING && shard.getDispatchedAt() == null)
+                    .forEach(this::dispatch);
+            finishIfCompleted();
         }
         catch (Exception e) {
-            log.error("Error deleting expired announcements: {}", e.getMessage(), e);
+            fail(e);
+        }
+    }
+
+    private void fail(Exception e) {
+        log.error("Error deleting expired announcements: {}", e.getMessage(), e);
+        if (run == null) {
+            run = jobRunsService.start(JOB_NAME, 0);
+        }
+        jobRunsService.finish(run, JobRunStatus.FAILED, deleted, shards.size(), e.getMessage());
+        leaseService.release(JOB_NAME);
+        reset();
+    }
+
+    private void retry(JobShard shard) {
+        if (shard.getAttempts() >= maxAttempts) {
+            log.error("Expiry shard {} of job {} failed after {} attempts", shard.getShardId(), jobId,
+                    shard.getAttempts());
+            shard.setStatus(JobShardStatus.FAILED);
+            jobRunsService.saveShard(shard);
+            finishIfCompleted();
+            return;
+        }
+        log.warn("Retrying expiry shard {} of job {}", shard.getShardId(), jobId);
+        dispatch(shard);
+    }
+
+    private void dispatch(JobShard shard) {
+        shard.setAttempts(shard.getAttempts() + 1);
+        shard.setDispatchedAt(LocalDateTime.now());
+        jobRunsService.saveShard(shard);
+        expiryShardKafkaTemplate.send(expiryShardTopic, String.valueOf(shard.getShardId()),
+                new ExpiryShardDTO(jobId, shard.getShardId(), shard.getAttempts(), shard.getFrom(), shard.getTo()));
+    }
+
+    private void finishIfCompleted() {
+        int failed = 0;
+        for (JobShard shard : shards.values()) {
+            if (shard.getStatus() == JobShardStatus.PENDING) {
+                return;
+            }
+            if (shard.getStatus() == JobShardStatus.FAILED) {
+                failed++;
+            }
         }
+        jobRunsService.finish(run, failed == 0 ? JobRunStatus.COMPLETED : JobRunStatus.FAILED, deleted, failed,
+                null);
+        log.info("Expiry job {} finished: {} announcements deleted, {} of {} shards failed", jobId, deleted, failed,
+                shards.size());
+        leaseService.release(JOB_NAME);
+        reset();
+    }
+
+    private void reset() {
+        run = null;
+        jobId = null;
+        deleted = 0;
+        shards.clear();
     }
 
 }
@@ -0,0 +1,27 @@
+CREATE TABLE job_leases
+(
+    job_name    VARCHAR                     NOT NULL,
+    holder      VARCHAR                     NOT NULL,
+    lease_until TIMESTAMP WITH TIME ZONE    NOT NULL,
+    CONSTRAINT job_leases_pkey PRIMARY KEY (job_name)
+);
+
+CREATE TABLE job_runs
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    job_name      VARCHAR                                 NOT NULL,
+    holder        VARCHAR                                 NOT NULL,
+    status        VARCHAR                                 NOT NULL,
+    started_at    TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    finished_at   TIMESTAMP WITHOUT TIME ZONE,
+    duration_ms   BIGINT,
+    items_count   INTEGER,
+    shards_count  INTEGER,
+    failed_shards INTEGER,
+    error         VARCHAR,
+    CONSTRAINT job_runs_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS job_runs_job_name_status_idx ON job_runs (job_name, status);
+
+CREATE INDEX IF NOT EXISTS job_runs_job_name_started_at_idx ON job_runs (job_name, started_at);
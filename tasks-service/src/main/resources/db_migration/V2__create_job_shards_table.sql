@@ -0,0 +1,15 @@
+CREATE TABLE job_shards
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    run_id        BIGINT                                  NOT NULL,
+    shard_id      INTEGER                                 NOT NULL,
+    from_time     TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    to_time       TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    status        VARCHAR                                 NOT NULL,
+    attempts      INTEGER                                 NOT NULL,
+    dispatched_at TIMESTAMP WITHOUT TIME ZONE,
+    deleted       INTEGER                                 NOT NULL,
+    CONSTRAINT job_shards_pkey PRIMARY KEY (id),
+    CONSTRAINT job_shards_run_id_fkey FOREIGN KEY (run_id) REFERENCES job_runs (id) ON DELETE CASCADE,
+    CONSTRAINT job_shards_run_id_shard_id_key UNIQUE (run_id, shard_id)
+);
@@ -0,0 +1,288 @@
+package modules;
+
+import danix.app.tasks_service.dto.ExpiryShardDTO;
+import danix.app.tasks_service.dto.ExpiryShardResultDTO;
+import danix.app.tasks_service.feign.AnnouncementsAPI;
+import danix.app.tasks_service.models.JobRun;
+import danix.app.tasks_service.models.JobRunStatus;
+import danix.app.tasks_service.models.JobShard;
+import danix.app.tasks_service.models.JobShardStatus;
+import danix.app.tasks_service.services.JobRunsService;
+import danix.app.tasks_service.services.LeaseService;
+import danix.app.tasks_service.tasks.DeleteExpiredAnnouncementsTask;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DeleteExpiredAnnouncementsTaskTests {
+
+    @Mock
+    private AnnouncementsAPI announcementsAPI;
+
+    @Mock
+    private KafkaTemplate<String, ExpiryShardDTO> kafkaTemplate;
+
+    private final Leases leases = new Leases();
+
+    private final InMemoryJobRuns jobRuns = new InMemoryJobRuns();
+
+    @Test
+    public void twoReplicasFiringOneAfterAnotherRunJobOnce() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of());
+        DeleteExpiredAnnouncementsTask first = createTask("first");
+        DeleteExpiredAnnouncementsTask second = createTask("second");
+
+        first.run();
+        second.run();
+
+        verify(announcementsAPI, times(1)).getExpiredShards(any());
+        assertEquals(1, jobRuns.runs.size());
+        assertEquals(JobRunStatus.COMPLETED, jobRuns.runs.getFirst().getStatus());
+    }
+
+    @Test
+    public void secondReplicaSkipsWhileFirstIsRunning() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of(shard(0)));
+        DeleteExpiredAnnouncementsTask first = createTask("first");
+        DeleteExpiredAnnouncementsTask second = createTask("second");
+
+        first.run();
+        second.run();
+
+        verify(announcementsAPI, times(1)).getExpiredShards(any());
+        verify(kafkaTemplate, times(1)).send(any(), any(), any());
+        assertEquals(1, jobRuns.runs.size());
+    }
+
+    @Test
+    public void jobRunsAgainInNextWindow() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of());
+        DeleteExpiredAnnouncementsTask first = createTask("first");
+        DeleteExpiredAnnouncementsTask second = createTask("second");
+
+        first.run();
+        jobRuns.runs.getFirst().setStartedAt(LocalDateTime.now().minusDays(1));
+        second.run();
+
+        verify(announcementsAPI, times(2)).getExpiredShards(any());
+        assertEquals(2, jobRuns.runs.size());
+    }
+
+    @Test
+    public void timedOutShardIsRedispatchedWithNewAttempt() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of(shard(0)));
+        DeleteExpiredAnnouncementsTask task = createTask("first");
+
+        task.run();
+        jobRuns.shards.getFirst().setDispatchedAt(LocalDateTime.now().minusMinutes(10));
+        task.check();
+
+        ArgumentCaptor<ExpiryShardDTO> captor = ArgumentCaptor.captor();
+        verify(kafkaTemplate, times(2)).send(eq("expiry_shard"), eq("0"), captor.capture());
+        assertEquals(1, captor.getAllValues().get(0).getAttempt());
+        assertEquals(2, captor.getAllValues().get(1).getAttempt());
+        assertEquals(2, jobRuns.shards.getFirst().getAttempts());
+    }
+
+    @Test
+    public void resultOfSupersededAttemptIsIgnored() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of(shard(0)));
+        DeleteExpiredAnnouncementsTask task = createTask("first");
+
+        task.run();
+        jobRuns.shards.getFirst().setDispatchedAt(LocalDateTime.now().minusMinutes(10));
+        task.check();
+        task.shardResultListener(result(0, 1, 5));
+
+        assertEquals(JobRunStatus.RUNNING, jobRuns.runs.getFirst().getStatus());
+        assertEquals(JobShardStatus.PENDING, jobRuns.shards.getFirst().getStatus());
+
+        task.shardResultListener(result(0, 2, 7));
+
+        assertEquals(JobRunStatus.COMPLETED, jobRuns.runs.getFirst().getStatus());
+        assertEquals(7, jobRuns.runs.getFirst().getItemsCount());
+    }
+
+    @Test
+    public void replicaTakingOverResumesPersistedShards() {
+        when(announcementsAPI.getExpiredShards(any())).thenReturn(List.of(shard(0), shard(1)));
+        DeleteExpiredAnnouncementsTask first = createTask("first");
+        DeleteExpiredAnnouncementsTask second = createTask("second");
+
+        first.run();
+        first.shardResultListener(result(0, 1, 5));
+        leases.expire();
+        second.check();
+
+        verify(announcementsAPI, times(1)).getExpiredShards(any());
+        verify(kafkaTemplate, times(2)).send(any(), any(), any());
+        assertEquals(1, jobRuns.runs.size());
+
+        second.shardResultListener(result(1, 1, 3));
+
+        assertEquals(JobRunStatus.COMPLETED, jobRuns.runs.getFirst().getStatus());
+        assertEquals(8, jobRuns.runs.getFirst().getItemsCount());
+    }
+
+    @Test
+    public void replicaTakingOverDispatchesShardsNeverSent() {
+        DeleteExpiredAnnouncementsTask task = createTask("second");
+        JobRun run = jobRuns.start("delete-expired-announcements", 1);
+        LocalDateTime from = LocalDateTime.now().minusDays(40);
+        jobRuns.saveShards(List.of(new JobShard(run.getId(), 0, from, from.plusDays(1))));
+
+        task.check();
+
+        verify(announcementsAPI, never()).getExpiredShards(any());
+        ArgumentCaptor<ExpiryShardDTO> captor = ArgumentCaptor.captor();
+        verify(kafkaTemplate).send(eq("expiry_shard"), eq("0"), captor.capture());
+        assertEquals(String.valueOf(run.getId()), captor.getValue().getJobId());
+        assertEquals(1, captor.getValue().getAttempt());
+    }
+
+    private DeleteExpiredAnnouncementsTask createTask(String holder) {
+        DeleteExpiredAnnouncementsTask task = new DeleteExpiredAnnouncementsTask(announcementsAPI, kafkaTemplate,
+                leases.forHolder(holder), jobRuns);
+        ReflectionTestUtils.setField(task, "accessKey", "test");
+        ReflectionTestUtils.setField(task, "expiryShardTopic", "expiry_shard");
+        ReflectionTestUtils.setField(task, "shardTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(task, "maxAttempts", 3);
+        ReflectionTestUtils.setField(task, "leaseDuration", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(task, "jobWindow", Duration.ofHours(12));
+        return task;
+    }
+
+    private ExpiryShardDTO shard(int id) {
+        LocalDateTime from = LocalDateTime.now().minusDays(40).plusDays(id);
+        return new ExpiryShardDTO(null, id, null, from, from.plusDays(1));
+    }
+
+    private ExpiryShardResultDTO result(int shardId, int attempt, int deleted) {
+        ExpiryShardResultDTO result = new ExpiryShardResultDTO();
+        result.setJobId(String.valueOf(jobRuns.runs.getFirst().getId()));
+        result.setShardId(shardId);
+        result.setAttempt(attempt);
+        result.setDeleted(deleted);
+        result.setSuccess(true);
+        return result;
+    }
+
+    private static class Leases {
+
+        private String holder;
+
+        private Instant until = Instant.MIN;
+
+        synchronized void expire() {
+            until = Instant.now();
+        }
+
+        LeaseService forHolder(String name) {
+            return new LeaseService() {
+                @Override
+                public boolean tryAcquire(String jobName, Duration duration) {
+                    synchronized (Leases.this) {
+                        if (!name.equals(holder) && until.isAfter(Instant.now())) {
+                            return false;
+                        }
+                        holder = name;
+                        until = Instant.now().plus(duration);
+                        return true;
+                    }
+                }
+
+                @Override
+                public void release(String jobName) {
+                    synchronized (Leases.this) {
+                        if (name.equals(holder)) {
+                            until = Instant.now();
+                        }
+                    }
+                }
+
+                @Override
+                public String getHolder() {
+                    return name;
+                }
+            };
+        }
+
+    }
+
+    private static class InMemoryJobRuns implements JobRunsService {
+
+        private final List<JobRun> runs = new ArrayList<>();
+
+        private final List<JobShard> shards = new ArrayList<>();
+
+        @Override
+        public JobRun start(String jobName, int shardsCount) {
+            JobRun run = new JobRun(jobName, "test");
+            run.setId(runs.size() + 1L);
+            run.setShardsCount(shardsCount);
+            runs.add(run);
+            return run;
+        }
+
+        @Override
+        public void finish(JobRun run, JobRunStatus status, int itemsCount, int failedShards, String error) {
+            run.setStatus(status);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setItemsCount(itemsCount);
+            run.setFailedShards(failedShards);
+            run.setError(error);
+        }
+
+        @Override
+        public boolean hasFinishedSince(String jobName, LocalDateTime time) {
+            return runs.stream().anyMatch(run -> run.getStatus() != JobRunStatus.RUNNING &&
+                    run.getStartedAt().isAfter(time));
+        }
+
+        @Override
+        public Optional<JobRun> findRunning(String jobName) {
+            return runs.stream().filter(run -> run.getStatus() == JobRunStatus.RUNNING).findFirst();
+        }
+
+        @Override
+        public List<JobShard> getShards(JobRun run) {
+            return shards.stream().filter(shard -> shard.getRunId().equals(run.getId())).toList();
+        }
+
+        @Override
+        public List<JobShard> saveShards(List<JobShard> shards) {
+            shards.forEach(this::saveShard);
+            return shards;
+        }
+
+        @Override
+        public void saveShard(JobShard shard) {
+            if (shard.getId() == null) {
+                shard.setId(shards.size() + 1L);
+                shards.add(shard);
+            }
+        }
+
+    }
+
+}
@@ -43,7 +43,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS)
                         .permitAll()
                         .requestMatchers("/users/registration", "/users/registration/confirm", "/users/{id}/email",
-                                "/users/email", "/users/temp", "/users/is-banned")
+                                "/users/emails", "/users/email", "/users/temp", "/users/is-banned")
                         .access(accessKeyAuthManager())
                         .requestMatchers(HttpMethod.DELETE, "/users/{id}")
                         .access(accessKeyAuthManager())
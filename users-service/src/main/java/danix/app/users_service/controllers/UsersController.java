@@ -56,6 +56,12 @@ public class UsersController {
 		return new ResponseEntity<>(new DataDTO<>(usersService.getById(id).getEmail()), HttpStatus.OK);
 	}
 
+	@Hidden
+	@PostMapping("/emails")
+	public ResponseEntity<DataDTO<Map<Long, String>>> getUsersEmails(@RequestBody List<Long> ids) {
+		return new ResponseEntity<>(usersService.getEmails(ids), HttpStatus.OK);
+	}
+
 	@Hidden
 	@PostMapping("/registration")
 	public ResponseEntity<HttpStatus> temporalRegistration(@RequestBody RegistrationDTO registrationDTO,
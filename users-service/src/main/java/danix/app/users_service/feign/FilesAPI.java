@@ -14,9 +14,6 @@ public interface FilesAPI {
 	void uploadAvatar(@RequestPart("image") MultipartFile image, @RequestParam String fileName,
 					  @RequestParam("access_key") String accessKey);
 
-	@GetMapping(value = PATH)
-	byte[] downloadAvatar(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
-
 	@DeleteMapping(PATH)
 	void deleteAvatar(@RequestParam String fileName, @RequestParam("access_key") String accessKey);
 
@@ -0,0 +1,9 @@
+package danix.app.users_service.repositories;
+
+public interface UserEmailProjection {
+
+    Long getId();
+
+    String getEmail();
+
+}
@@ -2,8 +2,10 @@ package danix.app.users_service.repositories;
 
 import danix.app.users_service.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,7 @@ public interface UsersRepository extends JpaRepository<User, Long> {
 
 	Optional<User> findByUsername(String username);
 
+	@Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.id IN (:ids)")
+	List<UserEmailProjection> findEmailsByIdIn(List<Long> ids);
+
 }
\ No newline at end of file
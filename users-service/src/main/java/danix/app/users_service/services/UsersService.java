@@ -12,6 +12,8 @@ public interface UsersService {
 
     User getById(Long id);
 
+    DataDTO<Map<Long, String>> getEmails(List<Long> ids);
+
     ResponseUserDTO show(Long id);
 
     UserInfoDTO getInfo();
@@ -27,7 +27,9 @@ import danix.app.users_service.repositories.CommentsRepository;
 import danix.app.users_service.repositories.GradesRepository;
 import danix.app.users_service.repositories.ReportsRepository;
 import danix.app.users_service.repositories.TempUsersRepository;
+import danix.app.users_service.repositories.UserEmailProjection;
 import danix.app.users_service.repositories.UsersRepository;
+import danix.app.users_service.util.DownloadUrlSigner;
 import danix.app.users_service.util.SecurityUtil;
 import danix.app.users_service.services.UsersService;
 import danix.app.users_service.util.UserException;
@@ -36,8 +38,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
@@ -52,6 +54,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -87,6 +90,8 @@ public class UsersServiceImpl implements UsersService {
 
 	private final SecurityUtil securityUtil;
 
+	private final DownloadUrlSigner downloadUrlSigner;
+
 	@Value("${kafka-topics.deleted-user}")
 	private String deletedUserTopic;
 
@@ -102,11 +107,26 @@ public class UsersServiceImpl implements UsersService {
 	@Value("${temp-users_storage_time}")
 	private int tempUsersStorageTime;
 
+	private static final int MAX_EMAILS_COUNT = 1000;
+
 	@Override
 	public User getById(Long id) {
 		return usersRepository.findById(id).orElseThrow(() -> new UserException("User not found"));
 	}
 
+	@Override
+	public DataDTO<Map<Long, String>> getEmails(List<Long> ids) {
+		if (ids.size() > MAX_EMAILS_COUNT) {
+			throw new UserException("Maximum " + MAX_EMAILS_COUNT + " ids per request");
+		}
+		if (ids.isEmpty()) {
+			return new DataDTO<>(Map.of());
+		}
+		return new DataDTO<>(usersRepository.findEmailsByIdIn(ids).stream()
+				.filter(projection -> projection.getEmail() != null)
+				.collect(Collectors.toMap(UserEmailProjection::getId, UserEmailProjection::getEmail)));
+	}
+
 	@Override
 	public ResponseUserDTO show(Long id) {
 		User user = getById(id);
@@ -203,10 +223,10 @@ public class UsersServiceImpl implements UsersService {
 	@Override
 	public ResponseEntity<?> getAvatar(Long id) {
 		User user = getById(id);
-		byte[] data = filesAPI.downloadAvatar(user.getAvatar(), accessKey);
-		return ResponseEntity.status(HttpStatus.OK)
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(data);
+		return ResponseEntity.status(HttpStatus.FOUND)
+				.location(downloadUrlSigner.sign(FilesAPI.PATH, user.getAvatar()))
+				.cacheControl(CacheControl.noCache())
+				.build();
 	}
 
 	@Override
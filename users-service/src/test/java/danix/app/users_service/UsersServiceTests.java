@@ -41,7 +41,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 @ExtendWith(MockitoExtension.class)
 class UsersServiceTests {
@@ -151,6 +153,49 @@ class UsersServiceTests {
         assertThrows(UserException.class, () -> usersService.show(2L));
     }
 
+    @Test
+    public void getEmails() {
+        User testUser = getTestUser();
+        UserEmailProjection projection = new UserEmailProjection() {
+            @Override
+            public Long getId() {
+                return testUser.getId();
+            }
+
+            @Override
+            public String getEmail() {
+                return testUser.getEmail();
+            }
+        };
+        when(usersRepository.findEmailsByIdIn(List.of(testUser.getId(), 3L))).thenReturn(List.of(projection));
+        Map<Long, String> emails = usersService.getEmails(List.of(testUser.getId(), 3L)).data();
+        assertEquals(Map.of(testUser.getId(), testUser.getEmail()), emails);
+    }
+
+    @Test
+    public void getEmailsSkipsUsersWithoutEmail() {
+        UserEmailProjection projection = new UserEmailProjection() {
+            @Override
+            public Long getId() {
+                return 3L;
+            }
+
+            @Override
+            public String getEmail() {
+                return null;
+            }
+        };
+        when(usersRepository.findEmailsByIdIn(List.of(3L))).thenReturn(List.of(projection));
+        assertEquals(Map.of(), usersService.getEmails(List.of(3L)).data());
+    }
+
+    @Test
+    public void getEmailsWhenTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+        assertThrows(UserException.class, () -> usersService.getEmails(ids));
+        verify(usersRepository, never()).findEmailsByIdIn(any());
+    }
+
     @Test
     public void registrationConfirm() {
         User user = getTestUser();